@@ -0,0 +1,320 @@
+package org.jcommons.lang.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates an implementation for each interface with methods annotated by
+ * <code>org.jcommons.lang.string.Template</code>.
+ *
+ * The text of each method is parsed at compile time, and the compilation fails if a placeholder is malformed, if a
+ * placeholder has no parameter of the same name, or if a parameter is not used by any placeholder. Typed placeholders
+ * such as <code>${amount,number,#.##}</code> are bound to the name before the comma, unless their pattern is invalid.
+ *
+ * The generated class <code>&lt;Interface&gt;Renderer</code> holds a <code>NamedTemplate</code> per method, created
+ * from the parsed parts by <code>NamedTemplate.precompiled</code>, so rendering is exactly the same as with
+ * <code>NamedString</code>, but neither parses the text at runtime nor uses reflection.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class TemplateProcessor
+  extends AbstractProcessor
+{
+  private static final String TEMPLATE = "org.jcommons.lang.string.Template";
+  private static final String NAMED_TEMPLATE = "org.jcommons.lang.string.NamedTemplate";
+  private static final String SUFFIX = "Renderer";
+
+  /** @return the template annotation */
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    return Collections.singleton(TEMPLATE);
+  }
+
+  /** @return the latest version, as the processor does not depend on any language feature */
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment round) {
+    Set<TypeElement> types = new LinkedHashSet<TypeElement>();
+    for (TypeElement annotation : annotations) {
+      for (Element method : round.getElementsAnnotatedWith(annotation)) {
+        types.add((TypeElement) method.getEnclosingElement());
+      }
+    }
+
+    for (TypeElement type : types) {
+      if (type.getKind() != ElementKind.INTERFACE) {
+        error(type, "Templates are only supported for methods of interfaces");
+      } else if (!type.getTypeParameters().isEmpty()) {
+        error(type, "Templates are not supported for generic interfaces");
+      } else if (type.getModifiers().contains(Modifier.PRIVATE)) {
+        error(type, "Templates are not supported for private interfaces");
+      } else {
+        generate(type);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Generates the renderer for an interface, unless any of its methods cannot be implemented.
+   *
+   * @param type the interface with templates
+   */
+  private void generate(final TypeElement type) {
+    Map<ExecutableElement, TemplateText> templates = new LinkedHashMap<ExecutableElement, TemplateText>();
+    boolean valid = true;
+
+    for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+      if (!method.getModifiers().contains(Modifier.ABSTRACT)) continue;
+
+      AnnotationMirror annotation = annotation(method);
+      if (annotation == null) {
+        error(method, "Method " + method.getSimpleName() + " has no @Template");
+        valid = false;
+        continue;
+      }
+
+      TemplateText text = check(method, annotation);
+      if (text == null) {
+        valid = false;
+      } else {
+        templates.put(method, text);
+      }
+    }
+
+    if (valid) write(type, templates);
+  }
+
+  /**
+   * Checks the text and the signature of a method.
+   *
+   * @param method the method to check
+   * @param annotation the template annotation of the method
+   * @return the parsed text, null if an error has been reported
+   */
+  private TemplateText check(final ExecutableElement method, final AnnotationMirror annotation) {
+    String returnType = method.getReturnType().toString();
+    if (!"java.lang.String".equals(returnType) && !"java.lang.CharSequence".equals(returnType)) {
+      error(method, "Method " + method.getSimpleName() + " must return a String", annotation);
+      return null;
+    }
+    if (!method.getTypeParameters().isEmpty()) {
+      error(method, "Method " + method.getSimpleName() + " must not be generic", annotation);
+      return null;
+    }
+
+    TemplateText text;
+    try {
+      text = TemplateText.parse(value(annotation));
+    } catch (IllegalArgumentException e) {
+      error(method, e.getMessage() + " of " + method.getSimpleName(), annotation);
+      return null;
+    }
+
+    Set<String> parameters = new HashSet<String>();
+    for (VariableElement parameter : method.getParameters()) {
+      parameters.add(parameter.getSimpleName().toString());
+    }
+    boolean valid = true;
+    for (String name : text.getNames()) {
+      if (!parameters.remove(name)) {
+        error(method, "Placeholder ${" + name + "} has no parameter of " + method.getSimpleName(), annotation);
+        valid = false;
+      }
+    }
+    for (String parameter : parameters) {
+      error(method, "Parameter " + parameter + " is not used by any placeholder of " + method.getSimpleName(),
+          annotation);
+      valid = false;
+    }
+    return valid ? text : null;
+  }
+
+  /**
+   * Writes the source of the renderer.
+   *
+   * @param type the interface to implement
+   * @param templates the parsed text of each method
+   */
+  private void write(final TypeElement type, final Map<ExecutableElement, TemplateText> templates) {
+    String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    String className = rendererName(type);
+    String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+
+    StringBuilder source = new StringBuilder();
+    if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+    source.append("/** Renders the templates of {@link ").append(type.getQualifiedName()).append("}. */\n");
+    source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+    source.append("public final class ").append(className).append("\n  implements ")
+        .append(type.getQualifiedName()).append("\n{\n");
+
+    List<ExecutableElement> methods = new ArrayList<ExecutableElement>(templates.keySet());
+    for (int i = 0; i < methods.size(); i++) {
+      TemplateText text = templates.get(methods.get(i));
+      source.append("  private static final ").append(NAMED_TEMPLATE).append(" TEMPLATE_").append(i).append(" = ")
+          .append(NAMED_TEMPLATE).append(".precompiled(\n      ").append(quote(text.getText())).append(",\n      ")
+          .append(strings(text.getNames())).append(",\n      ").append(strings(text.getLiterals()))
+          .append(",\n      new int[] {");
+      for (int slot = 0; slot < text.getSlots().size(); slot++) {
+        source.append((slot == 0) ? " " : ", ").append(text.getSlots().get(slot));
+      }
+      source.append(" },\n      ").append(strings(text.getDefaults())).append(",\n      ")
+          .append(strings(text.getSpecs())).append(");\n");
+    }
+
+    for (int i = 0; i < methods.size(); i++) {
+      ExecutableElement method = methods.get(i);
+      TemplateText text = templates.get(method);
+      source.append("\n  @Override\n  public ").append(method.getReturnType()).append(' ')
+          .append(method.getSimpleName()).append('(');
+      List<? extends VariableElement> parameters = method.getParameters();
+      for (int p = 0; p < parameters.size(); p++) {
+        if (p > 0) source.append(", ");
+        VariableElement parameter = parameters.get(p);
+        source.append("final ").append(parameter.asType()).append(' ').append(parameter.getSimpleName());
+      }
+      source.append(") {\n    return TEMPLATE_").append(i).append(".render(");
+      for (int n = 0; n < text.getNames().size(); n++) {
+        if (n > 0) source.append(", ");
+        source.append("(Object) ").append(text.getNames().get(n));
+      }
+      source.append(");\n  }\n");
+    }
+    source.append("}\n");
+
+    try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+      writer.write(source.toString());
+    } catch (IOException e) {
+      error(type, "Cannot write " + qualifiedName + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * @param method a method of the interface
+   * @return the template annotation of the method, null if it has none
+   */
+  private static AnnotationMirror annotation(final ExecutableElement method) {
+    for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+      if (TEMPLATE.equals(annotation.getAnnotationType().toString())) return annotation;
+    }
+    return null;
+  }
+
+  /**
+   * @param annotation the template annotation
+   * @return the text of the template
+   */
+  private static String value(final AnnotationMirror annotation) {
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+        : annotation.getElementValues().entrySet()) {
+      if ("value".contentEquals(entry.getKey().getSimpleName())) return (String) entry.getValue().getValue();
+    }
+    return "";
+  }
+
+  /**
+   * @param type the interface to implement
+   * @return the simple name of the renderer, prefixed by the names of all enclosing types
+   */
+  private static String rendererName(final TypeElement type) {
+    StringBuilder name = new StringBuilder(type.getSimpleName());
+    Element outer = type.getEnclosingElement();
+    while (outer instanceof TypeElement) {
+      name.insert(0, '_').insert(0, outer.getSimpleName());
+      outer = outer.getEnclosingElement();
+    }
+    return name.append(SUFFIX).toString();
+  }
+
+  /**
+   * @param values the strings to write, may contain null
+   * @return the source of a string array
+   */
+  private static String strings(final List<String> values) {
+    StringBuilder source = new StringBuilder("new String[] {");
+    for (int i = 0; i < values.size(); i++) {
+      source.append((i == 0) ? " " : ", ").append(quote(values.get(i)));
+    }
+    return source.append(" }").toString();
+  }
+
+  /**
+   * @param value the string to write, can be null
+   * @return the source of a string literal
+   */
+  static String quote(final String value) {
+    if (value == null) return "null";
+
+    StringBuilder source = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          source.append("\\\"");
+          break;
+        case '\\':
+          source.append("\\\\");
+          break;
+        case '\n':
+          source.append("\\n");
+          break;
+        case '\r':
+          source.append("\\r");
+          break;
+        case '\t':
+          source.append("\\t");
+          break;
+        default:
+          if (c < ' ' || c > '~') {
+            source.append(String.format("\\u%04x", (int) c));
+          } else {
+            source.append(c);
+          }
+      }
+    }
+    return source.append('"').toString();
+  }
+
+  /**
+   * @param element the element to report the error for
+   * @param message the error message
+   */
+  private void error(final Element element, final String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  /**
+   * @param element the element to report the error for
+   * @param message the error message
+   * @param annotation the annotation of the element the error is about
+   */
+  private void error(final Element element, final String message, final AnnotationMirror annotation) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element, annotation);
+  }
+}
@@ -0,0 +1,160 @@
+package org.jcommons.lang.processor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jcommons.lang.string.NamedTemplate;
+
+/**
+ * The parts of a text with named placeholders, split exactly as by <code>NamedTemplate</code>.
+ *
+ * Other than at runtime, where a malformed placeholder is kept as it is, a text given at compile time must not have
+ * any unterminated, unnamed or nested placeholder, as these are most probably typing errors. The text is compiled by
+ * {@link NamedTemplate} as well, which decides which placeholders are typed, and whose names must be the same as the
+ * ones found here.
+ *
+ * @author Thorsten Goeckeler
+ */
+final class TemplateText
+{
+  private static final String PREFIX = "${";
+  private static final char ESCAPE = '$';
+  private static final char SUFFIX = '}';
+  private static final String DEFAULT_DELIMITER = ":-";
+
+  private final String text;
+  /** the distinct placeholder names in the order of their slots */
+  private final List<String> names;
+  /** the literals before, between and after the placeholders */
+  private final List<String> literals;
+  /** the slot of each placeholder */
+  private final List<Integer> slots;
+  /** the default value of each placeholder, null if it has none */
+  private final List<String> defaults;
+  /** the type and style of each placeholder, null if it is not typed */
+  private final List<String> specs;
+
+  /**
+   * @param text the text with placeholders
+   * @param names the distinct placeholder names
+   * @param literals the literals before, between and after the placeholders
+   * @param slots the slot of each placeholder
+   * @param defaults the default value of each placeholder
+   * @param specs the type and style of each placeholder
+   */
+  private TemplateText(final String text, final List<String> names, final List<String> literals,
+                       final List<Integer> slots, final List<String> defaults, final List<String> specs)
+  {
+    this.text = text;
+    this.names = names;
+    this.literals = literals;
+    this.slots = slots;
+    this.defaults = defaults;
+    this.specs = specs;
+  }
+
+  /**
+   * Splits a text into literals and placeholders.
+   *
+   * @param text the text with placeholders, must not be null
+   * @return the parts of the text
+   * @throws IllegalArgumentException if a placeholder is malformed
+   */
+  static TemplateText parse(final String text) {
+    NamedTemplate template = NamedTemplate.compile(text, Locale.ROOT);
+    List<String> literals = new ArrayList<String>();
+    Map<String, Integer> slotMap = new LinkedHashMap<String, Integer>();
+    List<Integer> slots = new ArrayList<Integer>();
+    List<String> defaults = new ArrayList<String>();
+    List<String> specs = new ArrayList<String>();
+
+    StringBuilder literal = new StringBuilder(text.length());
+    int index = 0;
+    while (index < text.length()) {
+      int start = text.indexOf(PREFIX, index);
+      if (start < 0) break;
+
+      if (start > 0 && text.charAt(start - 1) == ESCAPE) {
+        // escaped placeholder, the escape character is dropped
+        literal.append(text, index, start - 1).append(PREFIX);
+        index = start + PREFIX.length();
+        continue;
+      }
+
+      int end = text.indexOf(SUFFIX, start + PREFIX.length());
+      if (end < 0) throw new IllegalArgumentException("Unterminated placeholder at index " + start);
+
+      String expression = text.substring(start + PREFIX.length(), end);
+      if (expression.contains(PREFIX)) throw new IllegalArgumentException("Nested placeholder at index " + start);
+
+      String name = expression;
+      String defaultValue = null;
+      int delimiter = expression.indexOf(DEFAULT_DELIMITER);
+      if (delimiter >= 0) {
+        name = expression.substring(0, delimiter);
+        defaultValue = expression.substring(delimiter + DEFAULT_DELIMITER.length());
+      }
+      if (name.trim().isEmpty()) throw new IllegalArgumentException("Placeholder without name at index " + start);
+
+      // a name with a comma is typed if the template does not know it as it is
+      String spec = null;
+      int comma = name.indexOf(',');
+      if (comma > 0 && template.indexOf(name) < 0) {
+        spec = name.substring(comma + 1);
+        name = name.substring(0, comma);
+      }
+
+      literals.add(literal.append(text, index, start).toString());
+      literal.setLength(0);
+      Integer slot = slotMap.get(name);
+      if (slot == null) {
+        slot = slotMap.size();
+        slotMap.put(name, slot);
+      }
+      slots.add(slot);
+      defaults.add(defaultValue);
+      specs.add(spec);
+      index = end + 1;
+    }
+    literals.add(literal.append(text, index, text.length()).toString());
+
+    List<String> names = new ArrayList<String>(slotMap.keySet());
+    if (!names.equals(template.getNames())) {
+      throw new IllegalArgumentException("Placeholders " + names + " differ from " + template.getNames());
+    }
+    return new TemplateText(text, names, literals, slots, defaults, specs);
+  }
+
+  /** @return the text the parts have been taken from */
+  String getText() {
+    return text;
+  }
+
+  /** @return the distinct placeholder names in the order of their slots */
+  List<String> getNames() {
+    return names;
+  }
+
+  /** @return the literals before, between and after the placeholders */
+  List<String> getLiterals() {
+    return literals;
+  }
+
+  /** @return the slot of each placeholder */
+  List<Integer> getSlots() {
+    return slots;
+  }
+
+  /** @return the default value of each placeholder, null if it has none */
+  List<String> getDefaults() {
+    return defaults;
+  }
+
+  /** @return the type and style of each placeholder, null if it is not typed */
+  List<String> getSpecs() {
+    return specs;
+  }
+}
@@ -0,0 +1,170 @@
+package org.jcommons.lang.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.jcommons.lang.string.NamedTemplate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for <code>TemplateProcessor</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class TemplateProcessorTest
+{
+  private static final String GREETING = "Hello ${name}, \"welcome\" to ${city:-Berlin}.\\n$${escaped} ä ${name}";
+  private static final String DUE = "${amount,number,#,##0.00} due ${due,date,dd.MM.yyyy} or $${due}";
+
+  @TempDir
+  Path directory;
+
+  /** Test method for {@link TemplateProcessor#process(java.util.Set, javax.annotation.processing.RoundEnvironment)}. */
+  @Test
+  public void testGenerate()
+    throws Exception
+  {
+    String source = "package sample;\n"
+        + "import org.jcommons.lang.string.Template;\n"
+        + "public interface Messages {\n"
+        + "  @Template(\"" + GREETING.replace("\"", "\\\"") + "\")\n"
+        + "  String greeting(String name, String city);\n"
+        + "  @Template(\"${count} items\")\n"
+        + "  CharSequence count(int count);\n"
+        + "  @Template(\"no placeholders\")\n"
+        + "  String plain();\n"
+        + "  @Template(\"" + DUE + "\")\n"
+        + "  String due(double amount, java.time.LocalDate due);\n"
+        + "  default String twice(String name) { return greeting(name, null) + greeting(name, null); }\n"
+        + "  interface Nested {\n"
+        + "    @Template(\"${a}${b:-}\")\n"
+        + "    String concat(Object b, Object a);\n"
+        + "  }\n"
+        + "}\n";
+    List<Diagnostic<? extends JavaFileObject>> errors = compile("sample/Messages.java", source);
+    assertTrue(errors.isEmpty(), errors.toString());
+
+    try (URLClassLoader loader = new URLClassLoader(new URL[] { directory.toUri().toURL() },
+        getClass().getClassLoader()))
+    {
+      Object messages = loader.loadClass("sample.MessagesRenderer").getConstructor().newInstance();
+      NamedTemplate greeting = NamedTemplate.compile(GREETING.replace("\\n", "\n"));
+      assertEquals(greeting.render("John", "Rome"), invoke(messages, "greeting", "John", "Rome"));
+      assertEquals(greeting.render("John", null), invoke(messages, "greeting", "John", null));
+      assertEquals(greeting.render("${city}", "Rome"), invoke(messages, "greeting", "${city}", "Rome"));
+      assertEquals("42 items", invoke(messages, "count", 42).toString());
+      assertEquals("no placeholders", invoke(messages, "plain"));
+      LocalDate due = LocalDate.of(2024, 2, 29);
+      assertEquals(NamedTemplate.compile(DUE).render(1234.5, due), invoke(messages, "due", 1234.5, due));
+
+      Object nested = loader.loadClass("sample.Messages_NestedRenderer").getConstructor().newInstance();
+      assertEquals("xy", invoke(nested, "concat", "y", "x"));
+      assertEquals("x", invoke(nested, "concat", null, "x"));
+    }
+  }
+
+  /** Malformed placeholders and parameters that do not fit fail the compilation. */
+  @Test
+  public void testErrors()
+    throws IOException
+  {
+    assertError("Unterminated placeholder at index 6 of hello",
+        "@Template(\"Hello ${name\") String hello(String name);");
+    assertError("Nested placeholder at index 0 of hello", "@Template(\"${a${name}}\") String hello(String name);");
+    assertError("Placeholder without name at index 3 of hello", "@Template(\"Hi ${:-x}\") String hello();");
+    assertError("Placeholder ${a,number,#.#.#} has no parameter of hello",
+        "@Template(\"${a,number,#.#.#}\") String hello();");
+    assertError("Placeholder ${city} has no parameter of hello", "@Template(\"${city}\") String hello();");
+    assertError("Parameter name is not used by any placeholder of hello",
+        "@Template(\"Hi\") String hello(String name);");
+    assertError("Method hello has no @Template", "String hello(String name);");
+    assertError("Method hello must return a String", "@Template(\"Hi\") int hello();");
+  }
+
+  /**
+   * Compiles an interface with the given method and checks the error.
+   *
+   * @param expected the expected error message
+   * @param method the source of the method
+   * @throws IOException if the source cannot be written
+   */
+  private void assertError(final String expected, final String method)
+    throws IOException
+  {
+    String source = "import org.jcommons.lang.string.Template;\npublic interface Broken {\n"
+        + "  @Template(\"fine\") String fine();\n  " + method + "\n}\n";
+    List<Diagnostic<? extends JavaFileObject>> errors = compile("Broken.java", source);
+    List<String> messages = errors.stream().map(error -> error.getMessage(Locale.ROOT)).collect(Collectors.toList());
+    assertEquals(Arrays.asList(expected), messages);
+    assertFalse(Files.exists(directory.resolve("BrokenRenderer.class")));
+  }
+
+  /**
+   * Compiles a source file with the processor into the temporary directory.
+   *
+   * @param file the path of the source file
+   * @param source the source to compile
+   * @return the errors reported by the compiler
+   * @throws IOException if the source cannot be written
+   */
+  private List<Diagnostic<? extends JavaFileObject>> compile(final String file, final String source)
+    throws IOException
+  {
+    Path path = directory.resolve(file);
+    Files.createDirectories(path.getParent());
+    Files.write(path, source.getBytes(StandardCharsets.UTF_8));
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, Locale.ROOT,
+        StandardCharsets.UTF_8))
+    {
+      JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics,
+          Arrays.asList("-d", directory.toString(), "-s", directory.toString(), "-classpath",
+              System.getProperty("java.class.path")),
+          null, files.getJavaFileObjects(path));
+      task.setProcessors(Arrays.asList(new TemplateProcessor()));
+      task.call();
+    }
+    return diagnostics.getDiagnostics().stream().filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @param target the renderer
+   * @param name the name of the method
+   * @param arguments the arguments of the method
+   * @return the rendered text
+   * @throws Exception if the method fails
+   */
+  private static Object invoke(final Object target, final String name, final Object... arguments)
+    throws Exception
+  {
+    for (Method method : target.getClass().getMethods()) {
+      if (method.getName().equals(name)) return method.invoke(target, arguments);
+    }
+    throw new NoSuchMethodException(name);
+  }
+}
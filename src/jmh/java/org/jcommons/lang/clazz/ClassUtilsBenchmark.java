@@ -0,0 +1,34 @@
+package org.jcommons.lang.clazz;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for <code>ClassUtils</code>.
+ *
+ * @author Thorsten Goeckeler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ClassUtilsBenchmark
+{
+  private Class<?> clazz = ClassUtils.class;
+  private String prefix = "./test";
+
+  @Benchmark
+  public String getPackagePath() {
+    return ClassUtils.getPackagePath(clazz);
+  }
+
+  @Benchmark
+  public String getPackagePathWithPrefix() {
+    return ClassUtils.getPackagePath(clazz, prefix);
+  }
+}
@@ -0,0 +1,70 @@
+package org.jcommons.lang.number;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for <code>NumberUtils</code>.
+ *
+ * @author Thorsten Goeckeler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NumberUtilsBenchmark
+{
+  private Long small = 4711L;
+  private Long large = 4712L;
+  private Long none = null;
+  private BigDecimal decimal = new BigDecimal("4711.00");
+  private Integer integer = 4711;
+  private Double floating = 4711.0;
+  private long primitive = 4711L;
+
+  @Benchmark
+  public int compareLongs() {
+    return NumberUtils.compare(small, large);
+  }
+
+  @Benchmark
+  public int compareWithNull() {
+    return NumberUtils.compare(small, none);
+  }
+
+  @Benchmark
+  public boolean equalsLongs() {
+    return NumberUtils.equals(small, large);
+  }
+
+  @Benchmark
+  public boolean equalsMixedTypes() {
+    return NumberUtils.equals(small, decimal);
+  }
+
+  @Benchmark
+  public boolean equalValuesMixedTypes() {
+    return NumberUtils.equalValues(small, decimal);
+  }
+
+  @Benchmark
+  public boolean equalValuesIntegerLong() {
+    return NumberUtils.equalValues(integer, small);
+  }
+
+  @Benchmark
+  public int compareValuesLongDouble() {
+    return NumberUtils.compareValues(small, floating);
+  }
+
+  @Benchmark
+  public int compareValuesPrimitive() {
+    return NumberUtils.compareValues(primitive, floating);
+  }
+}
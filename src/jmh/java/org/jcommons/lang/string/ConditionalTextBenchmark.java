@@ -0,0 +1,52 @@
+package org.jcommons.lang.string;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for <code>ConditionalText</code>, compared to the same filter description built by a chain of
+ * <code>StringBuilderUtils</code> calls.
+ *
+ * @author Thorsten Goeckeler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConditionalTextBenchmark
+{
+  private Long invoiceNumber = 4711L;
+  private Long emptyNumber = 0L;
+  private String customerName = "John Doe";
+  private String emptyName = " ";
+  private String reference = "2012-03-13/0815";
+
+  @Benchmark
+  public String stringBuilderUtils() {
+    StringBuilder text = new StringBuilder("Filter was :");
+    for (int i = 0; i < 3; i++) {
+      StringBuilderUtils.appendIfNotEmpty(text, " Invoice #", invoiceNumber, null);
+      StringBuilderUtils.appendIfNotEmpty(text, " [", emptyNumber, "]");
+      StringBuilderUtils.appendIfNotEmpty(text, " Customer Name ", customerName, null);
+      StringBuilderUtils.appendIfNotEmpty(text, " [", emptyName, "]");
+      StringBuilderUtils.appendIfNotEmpty(text, " Reference ", reference, ";");
+    }
+    return text.toString();
+  }
+
+  @Benchmark
+  public String conditionalText() {
+    ConditionalText text = ConditionalText.start("Filter was :");
+    for (int i = 0; i < 3; i++) {
+      text.appendIfNotEmpty(" Invoice #", invoiceNumber, null).appendIfNotEmpty(" [", emptyNumber, "]")
+          .appendIfNotEmpty(" Customer Name ", customerName, null).appendIfNotEmpty(" [", emptyName, "]")
+          .appendIfNotEmpty(" Reference ", reference, ";");
+    }
+    return text.toString();
+  }
+}
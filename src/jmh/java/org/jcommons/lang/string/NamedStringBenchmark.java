@@ -0,0 +1,49 @@
+package org.jcommons.lang.string;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for <code>NamedString</code>.
+ *
+ * @author Thorsten Goeckeler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NamedStringBenchmark
+{
+  private NamedString message;
+
+  /** Creates the message with all its values. */
+  @Setup
+  public void setUp() {
+    message = NamedString.message("Hello ${name}, welcome to ${city} in ${country}!").with("name", "John")
+        .with("city", "Berlin").with("country", "Germany");
+  }
+
+  @Benchmark
+  public String toStringWithValues() {
+    // setting a value discards the rendered text, so it is rendered again
+    return message.with("name", "John").toString();
+  }
+
+  @Benchmark
+  public int deferredNotRendered() {
+    return NamedString.message("Hello ${name}, welcome to ${city}!").with("name", () -> "John")
+        .with("city", () -> "Berlin").hashCode();
+  }
+
+  @Benchmark
+  public String messageWithValues() {
+    return NamedString.message("Hello ${name}, welcome to ${city}!").with("name", "John").with("city", "Berlin")
+        .toString();
+  }
+}
@@ -0,0 +1,55 @@
+package org.jcommons.lang.string;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for <code>StringBuilderUtils</code>, appending to a builder that is reused.
+ *
+ * @author Thorsten Goeckeler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StringBuilderUtilsBenchmark
+{
+  private final StringBuilder text = new StringBuilder(256);
+  private Long invoiceNumber = 4711L;
+  private Long emptyNumber = 0L;
+  private String customerName = "John Doe";
+  private String emptyName = " ";
+  private long amountInCents = 1234567L;
+
+  @Benchmark
+  public StringBuilder appendNumbers() {
+    text.setLength(0);
+    StringBuilderUtils.appendIfNotEmpty(text, " Invoice #", invoiceNumber, null);
+    return StringBuilderUtils.appendIfNotEmpty(text, " [", emptyNumber, "]");
+  }
+
+  @Benchmark
+  public StringBuilder appendStrings() {
+    text.setLength(0);
+    StringBuilderUtils.appendIfNotEmpty(text, " Customer Name ", customerName, null);
+    return StringBuilderUtils.appendIfNotEmpty(text, " [", emptyName, "]");
+  }
+
+  @Benchmark
+  public StringBuilder appendPrimitives() {
+    text.setLength(0);
+    StringBuilderUtils.appendIfNotEmpty(text, " Invoice #", invoiceNumber.longValue(), null);
+    return StringBuilderUtils.appendIfNotEmpty(text, " [", emptyNumber.longValue(), "]");
+  }
+
+  @Benchmark
+  public StringBuilder appendDecimal() {
+    text.setLength(0);
+    return StringBuilderUtils.appendIfNotEmpty(text, " Amount ", amountInCents, 2, " EUR");
+  }
+}
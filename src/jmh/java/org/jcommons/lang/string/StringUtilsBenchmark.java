@@ -0,0 +1,43 @@
+package org.jcommons.lang.string;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for <code>StringUtils</code>.
+ *
+ * @author Thorsten Goeckeler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(jvmArgsAppend = { "-Duser.language=en", "-Duser.country=GB" })
+public class StringUtilsBenchmark
+{
+  private String name = "World";
+  private String greeting = "Hello";
+  private String city = "Berlin";
+  private String country = "Germany";
+
+  @Benchmark
+  public String messageWithOneArgument() {
+    return StringUtils.message("Hello {0}!", name);
+  }
+
+  @Benchmark
+  public String messageWithTwoArguments() {
+    return StringUtils.message("{0} {1}!", greeting, name);
+  }
+
+  @Benchmark
+  public String messageWithManyArguments() {
+    return StringUtils.message("{0} {1}, welcome to {2} in {3}!", greeting, name, city, country);
+  }
+}
@@ -0,0 +1,85 @@
+package org.jcommons.lang.time;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for <code>DateUtils</code>.
+ *
+ * The default locale is fixed to Great Britain, so the formats are tried for Great Britain and Germany only. Dates are
+ * given that match the very first format, the very last one, and none at all although they look like a date.
+ *
+ * @author Thorsten Goeckeler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(jvmArgsAppend = { "-Duser.language=en", "-Duser.country=GB" })
+public class DateUtilsBenchmark
+{
+  private String firstDay = "15-Mar-2010";
+  private String lastDay = "15. März 2010";
+  private String noDay = "15. Marzo 2010";
+  private String firstTime = "15-Mar-2010 14:15:45";
+  private String lastTime = "15. März 2010 14:15";
+  private String noTime = "15. Marzo 2010 14:15";
+
+  private Date withoutCentury;
+  private Date withCentury;
+
+  /** Creates the dates to be moved into the current century. */
+  @Setup
+  public void setUp() {
+    withCentury = DateUtils.toDay("15.03.2010");
+    withoutCentury = DateUtils.setYears(withCentury, 10);
+  }
+
+  @Benchmark
+  public Date toDayFirstFormat() {
+    return DateUtils.toDay(firstDay);
+  }
+
+  @Benchmark
+  public Date toDayLastFormat() {
+    return DateUtils.toDay(lastDay);
+  }
+
+  @Benchmark
+  public Date toDayNoFormat() {
+    return DateUtils.toDay(noDay);
+  }
+
+  @Benchmark
+  public Date toTimeFirstFormat() {
+    return DateUtils.toTime(firstTime);
+  }
+
+  @Benchmark
+  public Date toTimeLastFormat() {
+    return DateUtils.toTime(lastTime);
+  }
+
+  @Benchmark
+  public Date toTimeNoFormat() {
+    return DateUtils.toTime(noTime);
+  }
+
+  @Benchmark
+  public Date toCurrentCenturyWithCentury() {
+    return DateUtils.toCurrentCentury(withCentury);
+  }
+
+  @Benchmark
+  public Date toCurrentCenturyWithoutCentury() {
+    return DateUtils.toCurrentCentury(withoutCentury);
+  }
+}
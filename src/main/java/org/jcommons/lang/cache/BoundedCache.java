@@ -0,0 +1,204 @@
+package org.jcommons.lang.cache;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Size-bounded, concurrent cache that memoizes the results of a function, including null results.
+ *
+ * Entries are evicted with the CLOCK algorithm, an approximation of least recently used: each entry is marked when it
+ * is read, and when the cache is full, entries are visited in the order they were added. Marked entries get a second
+ * chance and are only unmarked, the first unmarked entry is evicted. Reading an entry therefore neither locks nor
+ * reorders anything.
+ *
+ * Values are computed outside of any lock, so the same key may be computed twice by concurrent threads, and the
+ * number of entries may exceed the capacity for a moment. Cached values are shared by all callers, so they should be
+ * immutable, e.g. a <code>LocalDateTime</code> rather than a <code>Date</code>.
+ *
+ * <pre>
+ *   BoundedCache&lt;String, LocalDateTime&gt; cache = new BoundedCache&lt;&gt;(1000);
+ *   LocalDateTime time = cache.get(text, DateUtils::toLocalDateTime);
+ * </pre>
+ *
+ * @author Thorsten Goeckeler
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class BoundedCache<K, V>
+{
+  /** estimated bytes per entry for the hash map node, the entry and the eviction queue, excluding key and value */
+  static final long ENTRY_BYTES = 96L;
+
+  private final int capacity;
+  private final ToLongBiFunction<? super K, ? super V> weigher;
+  private final ConcurrentHashMap<K, Entry<V>> entries;
+  /** keys in the order they were added or given a second chance */
+  private final ConcurrentLinkedQueue<K> clock = new ConcurrentLinkedQueue<K>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder weight = new LongAdder();
+
+  /**
+   * Creates a cache that does not estimate the size of keys and values.
+   *
+   * @param capacity the maximum number of entries, at least 1
+   */
+  public BoundedCache(final int capacity) {
+    this(capacity, (key, value) -> 0L);
+  }
+
+  /**
+   * Creates a cache that estimates its memory footprint with the given weigher.
+   *
+   * @param capacity the maximum number of entries, at least 1
+   * @param weigher estimates the bytes held by a key and its value, must not be null
+   */
+  public BoundedCache(final int capacity, final ToLongBiFunction<? super K, ? super V> weigher) {
+    if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1, but is " + capacity);
+    this.capacity = capacity;
+    this.weigher = Objects.requireNonNull(weigher, "weigher");
+    this.entries = new ConcurrentHashMap<K, Entry<V>>(Math.min(capacity, 1 << 16) * 4 / 3 + 1);
+  }
+
+  /**
+   * Returns the cached value for the given key, or computes and caches it if it is not cached yet.
+   *
+   * @param key the key to look up, must not be null
+   * @param function computes the value of a key, may return null which is cached as well
+   * @return the cached or computed value, may be null
+   */
+  public V get(final K key, final Function<? super K, ? extends V> function) {
+    Entry<V> entry = entries.get(key);
+    if (entry != null) {
+      hits.increment();
+      if (!entry.referenced) entry.referenced = true;
+      return entry.value;
+    }
+
+    misses.increment();
+    V value = function.apply(key);
+    entry = new Entry<V>(value, weigher.applyAsLong(key, value));
+    Entry<V> existing = entries.putIfAbsent(key, entry);
+    if (existing != null) return existing.value;
+
+    clock.offer(key);
+    weight.add(entry.weight);
+    if (size.incrementAndGet() > capacity) evict();
+    return value;
+  }
+
+  /** @return the maximum number of entries */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /** @return the number of cached entries */
+  public int size() {
+    return size.get();
+  }
+
+  /** @return the number of lookups that found a cached value */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** @return the number of lookups that had to compute the value */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** @return the number of entries that have been evicted to make room for others */
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /** @return the ratio of hits to all lookups, 0 if there were none */
+  public double getHitRate() {
+    long hit = getHits();
+    long total = hit + getMisses();
+    return (total == 0) ? 0.0 : (double) hit / total;
+  }
+
+  /** @return the estimated number of bytes held by the cached entries */
+  public long getFootprint() {
+    return size() * ENTRY_BYTES + weight.sum();
+  }
+
+  /**
+   * Removes all entries and resets the statistics.
+   *
+   * @return this to allow chaining
+   */
+  public BoundedCache<K, V> clear() {
+    K key;
+    while ((key = clock.poll()) != null) {
+      remove(key);
+    }
+    hits.reset();
+    misses.reset();
+    evictions.reset();
+    return this;
+  }
+
+  /** @return a summary of the statistics */
+  @Override
+  public String toString() {
+    return "BoundedCache[size=" + size() + ", capacity=" + capacity + ", hits=" + getHits() + ", misses="
+        + getMisses() + ", evictions=" + getEvictions() + ", footprint=" + getFootprint() + "]";
+  }
+
+  /** Evicts entries until the capacity is no longer exceeded. */
+  private void evict() {
+    while (size.get() > capacity) {
+      K key = clock.poll();
+      if (key == null) return;
+
+      Entry<V> entry = entries.get(key);
+      if (entry != null && entry.referenced) {
+        // second chance, the entry has been read since it was visited last
+        entry.referenced = false;
+        clock.offer(key);
+      } else if (remove(key)) {
+        evictions.increment();
+      }
+    }
+  }
+
+  /**
+   * @param key the key to remove
+   * @return true if the key has been removed, false if it was not cached
+   */
+  private boolean remove(final K key) {
+    Entry<V> entry = entries.remove(key);
+    if (entry == null) return false;
+
+    size.decrementAndGet();
+    weight.add(-entry.weight);
+    return true;
+  }
+
+  /** A cached value that remembers if it has been read since it was visited last. */
+  private static final class Entry<V>
+  {
+    private final V value;
+    private final long weight;
+    private volatile boolean referenced;
+
+    /**
+     * @param value the cached value
+     * @param weight the estimated bytes held by key and value
+     */
+    Entry(final V value, final long weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+}
@@ -41,7 +41,7 @@ public final class ClassUtils
     String packagePath = StringUtils.defaultString(getPackageName(clazz)).replace('.', '/');
 
     if (StringUtils.isNotEmpty(prefix)) {
-      packagePath = new StringBuilder(prefix).append(prefix.endsWith("/") ? "" : "/").append(packagePath).toString();
+      packagePath = prefix + (prefix.endsWith("/") ? "" : "/") + packagePath;
     }
 
     return packagePath;
@@ -1,8 +1,23 @@
 package org.jcommons.lang.number;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Number utilities that build upon {@link org.apache.commons.lang.math.NumberUtils}.
  *
+ * Numbers of different types are compared by their exact value with {@link #compareValues(Number, Number)} and
+ * {@link #equalValues(Number, Number)}, and overloads for primitives and any mix of primitives and wrappers avoid
+ * boxing. Integral numbers are compared as <code>long</code>, floating point numbers as <code>double</code>, and
+ * integral against floating point numbers without loss of precision. Big integers and integral big decimals of up to
+ * 18 digits are compared as <code>long</code> as well. Only numbers beyond these ranges, i.e. big integers that do
+ * not fit into a <code>long</code> and big decimals with a fraction or more digits, are compared as
+ * <code>BigDecimal</code>, and against integral numbers only if their signs and magnitudes do not tell already.
+ *
  * @author Thorsten Goeckeler
  *
  * @see org.apache.commons.lang.math.NumberUtils
@@ -10,6 +25,9 @@ package org.jcommons.lang.number;
 public final class NumberUtils
   extends org.apache.commons.lang3.math.NumberUtils
 {
+  /** 2^63, the smallest double that is greater than any long, while its negation is the smallest long */
+  private static final double LONG_RANGE = 0x1p63;
+
   /** hide constructor */
   private NumberUtils() {
   }
@@ -36,6 +54,7 @@ public final class NumberUtils
    * @param n1 the left hand side number to check, can be null
    * @param n2 the right hand side number to check, can be null
    * @return true if they have an equal value, otherwise false
+   * @see #equalValues(Number, Number) to compare numbers of different types
    */
   public static boolean equals(final Number n1, final Number n2) {
     if (n1 == null) { return (n2 == null); }
@@ -44,6 +63,242 @@ public final class NumberUtils
     return n1.equals(n2);
   }
 
+  /**
+   * Null safe comparison of the exact values of numbers of any type, e.g. an <code>Integer</code> and a
+   * <code>BigDecimal</code>. <code>NaN</code> is greater than any other value and equal to itself, and
+   * <code>-0.0</code> is equal to <code>0</code>.
+   *
+   * @param n1 the left hand side number to compare, can be null
+   * @param n2 the right hand side number to compare, can be null
+   * @return 0 if they have an equal value (or both are null), a negative value if n2 is greater, otherwise a positive
+   *         value
+   */
+  public static int compareValues(final Number n1, final Number n2) {
+    if (n1 == null) { return (n2 == null) ? 0 : -1; }
+    if (isIntegral(n1)) return compareValues(n1.longValue(), n2);
+    if (isBig(n1)) {
+      if (n2 == null) return 1;
+      if (isBig(n2)) return compareBig(n1, n2);
+      return -compareValues(n2, n1);
+    }
+    return compareValues(n1.doubleValue(), n2);
+  }
+
+  /**
+   * Null safe comparison of a number with the exact value of a number of any type.
+   *
+   * @param n1 the left hand side number to compare
+   * @param n2 the right hand side number to compare, can be null
+   * @return 0 if they have an equal value, a negative value if n2 is greater, otherwise a positive value
+   */
+  public static int compareValues(final long n1, final Number n2) {
+    if (n2 == null) return 1;
+    if (isIntegral(n2)) return Long.compare(n1, n2.longValue());
+    if (isBig(n2) && isLong(n2)) return Long.compare(n1, n2.longValue());
+    // a big integer of 64 bits or more is beyond the range of a long
+    if (n2 instanceof BigInteger) return -((BigInteger) n2).signum();
+    if (n2 instanceof BigDecimal) {
+      BigDecimal big = (BigDecimal) n2;
+      int sign = Long.signum(n1);
+      if (sign != big.signum()) return Integer.compare(sign, big.signum());
+      // 20 integral digits or more are beyond the range of a long
+      if (big.precision() - big.scale() > 19) return -sign;
+      return BigDecimal.valueOf(n1).compareTo(big);
+    }
+    return compareValues(n1, n2.doubleValue());
+  }
+
+  /**
+   * Null safe comparison of a number with the exact value of a number of any type.
+   *
+   * @param n1 the left hand side number to compare, can be null
+   * @param n2 the right hand side number to compare
+   * @return 0 if they have an equal value, a negative value if n2 is greater, otherwise a positive value
+   */
+  public static int compareValues(final Number n1, final long n2) {
+    return -compareValues(n2, n1);
+  }
+
+  /**
+   * Null safe comparison of a number with the exact value of a number of any type.
+   *
+   * @param n1 the left hand side number to compare
+   * @param n2 the right hand side number to compare, can be null
+   * @return 0 if they have an equal value, a negative value if n2 is greater, otherwise a positive value
+   */
+  public static int compareValues(final double n1, final Number n2) {
+    if (n2 == null) return 1;
+    if (isIntegral(n2)) return -compareValues(n2.longValue(), n1);
+    if (isBig(n2)) {
+      if (isLong(n2)) return -compareValues(n2.longValue(), n1);
+      if (Double.isNaN(n1) || Double.isInfinite(n1)) return (n1 < 0) ? -1 : 1;
+      return new BigDecimal(n1).compareTo(toBigDecimal(n2));
+    }
+    return compareValues(n1, n2.doubleValue());
+  }
+
+  /**
+   * Null safe comparison of a number with the exact value of a number of any type.
+   *
+   * @param n1 the left hand side number to compare, can be null
+   * @param n2 the right hand side number to compare
+   * @return 0 if they have an equal value, a negative value if n2 is greater, otherwise a positive value
+   */
+  public static int compareValues(final Number n1, final double n2) {
+    return -compareValues(n2, n1);
+  }
+
+  /**
+   * Comparison of integral numbers, e.g. an <code>int</code> and a <code>long</code>.
+   *
+   * @param n1 the left hand side number to compare
+   * @param n2 the right hand side number to compare
+   * @return 0 if they are equal, a negative value if n2 is greater, otherwise a positive value
+   */
+  public static int compareValues(final long n1, final long n2) {
+    return Long.compare(n1, n2);
+  }
+
+  /**
+   * Comparison of floating point numbers, e.g. a <code>float</code> and a <code>double</code>.
+   *
+   * @param n1 the left hand side number to compare
+   * @param n2 the right hand side number to compare
+   * @return 0 if they are equal, a negative value if n2 is greater, otherwise a positive value
+   */
+  public static int compareValues(final double n1, final double n2) {
+    if (n1 < n2) return -1;
+    if (n1 > n2) return 1;
+    // equal values including both zeros, or at least one NaN
+    return (n1 == n2) ? 0 : Double.compare(n1, n2);
+  }
+
+  /**
+   * Exact comparison of an integral and a floating point number, e.g. <code>Long.MAX_VALUE</code> is less than
+   * <code>0x1p63</code> although both are the same as <code>double</code>.
+   *
+   * @param n1 the left hand side number to compare
+   * @param n2 the right hand side number to compare
+   * @return 0 if they are equal, a negative value if n2 is greater, otherwise a positive value
+   */
+  public static int compareValues(final long n1, final double n2) {
+    if (Double.isNaN(n2) || n2 >= LONG_RANGE) return -1;
+    if (n2 < -LONG_RANGE) return 1;
+
+    // within the range of a long the integral part is exact, and so is the fraction
+    long integral = (long) n2;
+    if (n1 != integral) return Long.compare(n1, integral);
+    double fraction = n2 - integral;
+    return (fraction > 0) ? -1 : (fraction < 0) ? 1 : 0;
+  }
+
+  /**
+   * Exact comparison of a floating point and an integral number.
+   *
+   * @param n1 the left hand side number to compare
+   * @param n2 the right hand side number to compare
+   * @return 0 if they are equal, a negative value if n2 is greater, otherwise a positive value
+   */
+  public static int compareValues(final double n1, final long n2) {
+    return -compareValues(n2, n1);
+  }
+
+  /**
+   * Null safe check if numbers of any type have the same exact value, so other than with
+   * {@link #equals(Number, Number)} <code>Long 1</code> equals <code>BigDecimal 1.00</code>.
+   *
+   * @param n1 the left hand side number to check, can be null
+   * @param n2 the right hand side number to check, can be null
+   * @return true if they have an equal value (or both are null), otherwise false
+   * @see #compareValues(Number, Number)
+   */
+  public static boolean equalValues(final Number n1, final Number n2) {
+    if (n1 == null) { return (n2 == null); }
+    if (n2 == null) return false;
+
+    return compareValues(n1, n2) == 0;
+  }
+
+  /**
+   * Null safe check if a number has the same exact value as a number of any type.
+   *
+   * @param n1 the left hand side number to check
+   * @param n2 the right hand side number to check, can be null
+   * @return true if they have an equal value, otherwise false
+   */
+  public static boolean equalValues(final long n1, final Number n2) {
+    return n2 != null && compareValues(n1, n2) == 0;
+  }
+
+  /**
+   * Null safe check if a number has the same exact value as a number of any type.
+   *
+   * @param n1 the left hand side number to check, can be null
+   * @param n2 the right hand side number to check
+   * @return true if they have an equal value, otherwise false
+   */
+  public static boolean equalValues(final Number n1, final long n2) {
+    return equalValues(n2, n1);
+  }
+
+  /**
+   * Null safe check if a number has the same exact value as a number of any type.
+   *
+   * @param n1 the left hand side number to check
+   * @param n2 the right hand side number to check, can be null
+   * @return true if they have an equal value, otherwise false
+   */
+  public static boolean equalValues(final double n1, final Number n2) {
+    return n2 != null && compareValues(n1, n2) == 0;
+  }
+
+  /**
+   * Null safe check if a number has the same exact value as a number of any type.
+   *
+   * @param n1 the left hand side number to check, can be null
+   * @param n2 the right hand side number to check
+   * @return true if they have an equal value, otherwise false
+   */
+  public static boolean equalValues(final Number n1, final double n2) {
+    return equalValues(n2, n1);
+  }
+
+  /**
+   * @param n1 the left hand side number to check
+   * @param n2 the right hand side number to check
+   * @return true if they are equal
+   */
+  public static boolean equalValues(final long n1, final long n2) {
+    return n1 == n2;
+  }
+
+  /**
+   * @param n1 the left hand side number to check
+   * @param n2 the right hand side number to check
+   * @return true if they are equal, <code>NaN</code> is equal to itself and <code>-0.0</code> to <code>0.0</code>
+   */
+  public static boolean equalValues(final double n1, final double n2) {
+    return compareValues(n1, n2) == 0;
+  }
+
+  /**
+   * @param n1 the left hand side number to check
+   * @param n2 the right hand side number to check
+   * @return true if they have exactly the same value
+   */
+  public static boolean equalValues(final long n1, final double n2) {
+    return compareValues(n1, n2) == 0;
+  }
+
+  /**
+   * @param n1 the left hand side number to check
+   * @param n2 the right hand side number to check
+   * @return true if they have exactly the same value
+   */
+  public static boolean equalValues(final double n1, final long n2) {
+    return compareValues(n2, n1) == 0;
+  }
+
   /**
    * Null safe check if a number is empty whereas <code>null</code> and <code>0</code> are regarded as empty.
    *
@@ -69,4 +324,53 @@ public final class NumberUtils
   public static boolean isNotNull(final Number number) {
     return !isNull(number);
   }
+
+  /**
+   * @param number a number, must not be null
+   * @return true if the value of the number is exactly given by its <code>longValue()</code>
+   */
+  private static boolean isIntegral(final Number number) {
+    return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte
+        || number instanceof AtomicInteger || number instanceof AtomicLong || number instanceof LongAdder
+        || number instanceof LongAccumulator;
+  }
+
+  /**
+   * @param number a number, must not be null
+   * @return true if the number is a big integer or a big decimal
+   */
+  private static boolean isBig(final Number number) {
+    return number instanceof BigInteger || number instanceof BigDecimal;
+  }
+
+  /**
+   * @param number a big integer or a big decimal
+   * @return true if the value of the number is exactly given by its <code>longValue()</code>, which does not create
+   *         any objects then
+   */
+  private static boolean isLong(final Number number) {
+    if (number instanceof BigInteger) return ((BigInteger) number).bitLength() < Long.SIZE;
+    // any 18 digits fit into a long
+    BigDecimal big = (BigDecimal) number;
+    return big.scale() == 0 && big.precision() < 19;
+  }
+
+  /**
+   * @param number a big integer or a big decimal
+   * @return the number as big decimal
+   */
+  private static BigDecimal toBigDecimal(final Number number) {
+    return (number instanceof BigDecimal) ? (BigDecimal) number : new BigDecimal((BigInteger) number);
+  }
+
+  /**
+   * @param n1 the left hand side big integer or big decimal to compare
+   * @param n2 the right hand side big integer or big decimal to compare
+   * @return 0 if they have an equal value, a negative value if n2 is greater, otherwise a positive value
+   */
+  private static int compareBig(final Number n1, final Number n2) {
+    if (isLong(n1) && isLong(n2)) return Long.compare(n1.longValue(), n2.longValue());
+    if (n1 instanceof BigInteger && n2 instanceof BigInteger) return ((BigInteger) n1).compareTo((BigInteger) n2);
+    return toBigDecimal(n1).compareTo(toBigDecimal(n2));
+  }
 }
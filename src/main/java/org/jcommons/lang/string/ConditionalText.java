@@ -0,0 +1,218 @@
+package org.jcommons.lang.string;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+
+import org.jcommons.lang.number.NumberUtils;
+
+/**
+ * Text that is built of parts which are only appended if their value is regarded not empty, as by
+ * {@link StringBuilderUtils}.
+ *
+ * Other than a chain of {@link StringBuilderUtils#appendIfNotEmpty(StringBuilder, String, String, String)} calls the
+ * parts are only collected, empty ones are dropped right away, and the exact length of the text is known before it is
+ * written in one pass into a builder of that size:
+ *
+ * <pre>
+ * String filter = ConditionalText.start(&quot;Filter was :&quot;)
+ *     .appendIfNotEmpty(&quot; Invoice #&quot;, invoiceNumber, null)
+ *     .appendIfNotEmpty(&quot; [&quot;, invoiceNumberChecksum, &quot;]&quot;)
+ *     .toString();
+ * </pre>
+ *
+ * Values of a stream are joined by {@link #joining(String, String)}, which combines the texts of parallel streams by
+ * copying their parts, not their characters. A conditional text is not thread-safe.
+ *
+ * @author Thorsten Goeckeler
+ * @see StringBuilderUtils
+ */
+public final class ConditionalText
+  implements CharSequence
+{
+  /** number of parts a text is created for, i.e. about five values along with their prefixes and postfixes */
+  private static final int CAPACITY = 16;
+
+  /** the parts to append, prefixes and postfixes that are not given are null */
+  private String[] parts;
+  /** the number of parts including the empty affixes */
+  private int size;
+  /** the exact length of the text */
+  private int length;
+
+  /** @param capacity the number of parts to reserve space for */
+  private ConditionalText(final int capacity) {
+    this.parts = new String[capacity];
+  }
+
+  /** @return an empty text */
+  public static ConditionalText start() {
+    return new ConditionalText(CAPACITY);
+  }
+
+  /**
+   * @param text the text to start with, can be null
+   * @return a text that starts with the given text
+   */
+  public static ConditionalText start(final String text) {
+    return start().append(text);
+  }
+
+  /**
+   * Appends a text unconditionally.
+   *
+   * @param text the text to append, can be null
+   * @return this text
+   */
+  public ConditionalText append(final String text) {
+    if (StringUtils.isNotEmpty(text)) add(text);
+    return this;
+  }
+
+  /**
+   * Appends the given value and the optional post- and prefixes if the value is regarded not empty, i.e. if it is
+   * neither null nor zero.
+   *
+   * @param prefix the optional label to append before the value, can be null
+   * @param value the non-floating number to print only if it has a content
+   * @param postfix the optional label to append after the value, can be null
+   * @return this text
+   */
+  public ConditionalText appendIfNotEmpty(final String prefix, final Number value, final String postfix) {
+    if (NumberUtils.isNotNull(value)) add(prefix, String.valueOf(value), postfix);
+    return this;
+  }
+
+  /**
+   * Appends the given value and the optional post- and prefixes if the value is regarded not empty, i.e. if it is
+   * not blank.
+   *
+   * @param prefix the optional label to append before the value, can be null
+   * @param value the string to print only if it has a content
+   * @param postfix the optional label to append after the value, can be null
+   * @return this text
+   */
+  public ConditionalText appendIfNotEmpty(final String prefix, final String value, final String postfix) {
+    if (StringUtils.isNotBlank(value)) add(prefix, value, postfix);
+    return this;
+  }
+
+  /**
+   * Appends all parts of another text, without copying their characters.
+   *
+   * @param text the text to append, can be null
+   * @return this text
+   */
+  public ConditionalText append(final ConditionalText text) {
+    if (text == null || text.size == 0) return this;
+
+    ensureCapacity(size + text.size);
+    System.arraycopy(text.parts, 0, parts, size, text.size);
+    size += text.size;
+    length += text.length;
+    return this;
+  }
+
+  /**
+   * Appends the text to a builder, which is enlarged at most once.
+   *
+   * @param builder the builder to append the text to, must not be null
+   * @return the given builder
+   */
+  public StringBuilder appendTo(final StringBuilder builder) {
+    builder.ensureCapacity(builder.length() + length);
+    for (int i = 0; i < size; i++) {
+      if (parts[i] != null) builder.append(parts[i]);
+    }
+    return builder;
+  }
+
+  /** @return the exact length of the text */
+  @Override
+  public int length() {
+    return length;
+  }
+
+  /** @return true if no part has been appended */
+  public boolean isEmpty() {
+    return length == 0;
+  }
+
+  @Override
+  public char charAt(final int index) {
+    if (index < 0 || index >= length) throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+
+    int offset = index;
+    for (int i = 0;; i++) {
+      String part = parts[i];
+      if (part == null) continue;
+      if (offset < part.length()) return part.charAt(offset);
+      offset -= part.length();
+    }
+  }
+
+  @Override
+  public CharSequence subSequence(final int start, final int end) {
+    return toString().subSequence(start, end);
+  }
+
+  /** @return the text, written in one pass into a string of the exact length */
+  @Override
+  public String toString() {
+    if (size == 1) return parts[0];
+    return StringBuilderPool.toString(appendTo(StringBuilderPool.acquire(length)));
+  }
+
+  /**
+   * Joins the values of a stream that are regarded not empty, each one along with the given prefix and postfix. Numbers
+   * are empty if they are null or zero, and other values if they are null or their string is blank.
+   *
+   * <pre>
+   * String ids = invoices.parallelStream().map(Invoice::getId)
+   *     .collect(ConditionalText.joining(&quot;#&quot;, &quot; &quot;));
+   * </pre>
+   *
+   * @param prefix the optional label to append before each value, can be null
+   * @param postfix the optional label to append after each value, can be null
+   * @return the collector of the joined text
+   */
+  public static Collector<Object, ConditionalText, String> joining(final String prefix, final String postfix) {
+    BiConsumer<ConditionalText, Object> accumulator = (text, value) -> {
+      if (value instanceof Number) {
+        text.appendIfNotEmpty(prefix, (Number) value, postfix);
+      } else if (value != null) {
+        text.appendIfNotEmpty(prefix, value.toString(), postfix);
+      }
+    };
+    return Collector.of(ConditionalText::start, accumulator, ConditionalText::append, ConditionalText::toString);
+  }
+
+  /**
+   * Adds a value along with its affixes.
+   *
+   * @param prefix the prefix, can be null
+   * @param value the value, must not be null
+   * @param postfix the postfix, can be null
+   */
+  private void add(final String prefix, final String value, final String postfix) {
+    ensureCapacity(size + 3);
+    parts[size++] = prefix;
+    parts[size++] = value;
+    parts[size++] = postfix;
+    length += value.length();
+    if (prefix != null) length += prefix.length();
+    if (postfix != null) length += postfix.length();
+  }
+
+  /** @param text the text to add, must not be null */
+  private void add(final String text) {
+    ensureCapacity(size + 1);
+    parts[size++] = text;
+    length += text.length();
+  }
+
+  /** @param capacity the number of parts required */
+  private void ensureCapacity(final int capacity) {
+    if (capacity > parts.length) parts = Arrays.copyOf(parts, Math.max(capacity, parts.length * 2));
+  }
+}
@@ -0,0 +1,188 @@
+package org.jcommons.lang.string;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escaping of values for the format of the surrounding text, applied while the values are written.
+ *
+ * Each character is looked up in a table of replacements, and the runs of characters in between that need no
+ * escaping are copied at once. Values that need no escaping at all are copied as they are, so escaping neither scans
+ * a value twice nor creates a copy of it.
+ *
+ * <pre>
+ *   NamedTemplate template = NamedTemplate.compile("&lt;p&gt;${text}&lt;/p&gt;").escape(Escaping.HTML);
+ * </pre>
+ *
+ * @author Thorsten Goeckeler
+ * @see NamedTemplate#escape(Escaping)
+ */
+public enum Escaping
+{
+  /** escapes <code>&amp; &lt; &gt; " '</code> as entities, for HTML and XML text and attribute values */
+  HTML(html(), false),
+
+  /** escapes quotes, backslashes and control characters, for the content of a JSON or JavaScript string */
+  JSON(json(), false),
+
+  /** quotes values with commas, quotes or line breaks and doubles the quotes, for CSV fields as of RFC 4180 */
+  CSV(csv(), true);
+
+  /** number of characters with an entry in the tables */
+  private static final int TABLE_SIZE = 128;
+  private static final char QUOTE = '"';
+
+  /** the replacement of each character, null if it is copied as is */
+  private final String[] table;
+  /** true to quote the whole value instead of replacing characters */
+  private final boolean quote;
+
+  /**
+   * @param table the replacement of each character
+   * @param quote true to quote the whole value
+   */
+  Escaping(final String[] table, final boolean quote) {
+    this.table = table;
+    this.quote = quote;
+  }
+
+  /**
+   * Escapes a value.
+   *
+   * @param value the value to escape, can be null
+   * @return the escaped value, the given value itself if it needs no escaping
+   */
+  public CharSequence escape(final CharSequence value) {
+    if (value == null || indexOf(value, 0) < 0) return value;
+    return StringBuilderPool.toString(escape(value, StringBuilderPool.acquire(value.length() + 16)));
+  }
+
+  /**
+   * Appends an escaped value to the given builder.
+   *
+   * @param value the value to escape, must not be null
+   * @param output the builder to append the escaped value to, must not be null
+   * @return the given builder
+   */
+  public StringBuilder escape(final CharSequence value, final StringBuilder output) {
+    try {
+      write(value, output);
+      return output;
+    } catch (IOException e) {
+      throw new IllegalStateException("A StringBuilder does not fail", e);
+    }
+  }
+
+  /**
+   * Appends an escaped value to the given appendable, e.g. a {@link Writer}.
+   *
+   * @param value the value to escape, must not be null
+   * @param output the appendable to append the escaped value to, must not be null
+   * @throws IOException if the appendable fails
+   */
+  void write(final CharSequence value, final Appendable output)
+    throws IOException
+  {
+    int length = value.length();
+    int next = indexOf(value, 0);
+    if (next < 0) {
+      append(output, value, 0, length);
+      return;
+    }
+
+    if (quote) {
+      // quoted values only need to double the quotes
+      output.append(QUOTE);
+      int start = 0;
+      for (int i = next; i < length; i++) {
+        if (value.charAt(i) == QUOTE) {
+          append(output, value, start, i + 1);
+          start = i;
+        }
+      }
+      append(output, value, start, length);
+      output.append(QUOTE);
+      return;
+    }
+
+    int start = 0;
+    while (next >= 0) {
+      append(output, value, start, next);
+      output.append(table[value.charAt(next)]);
+      start = next + 1;
+      next = indexOf(value, start);
+    }
+    append(output, value, start, length);
+  }
+
+  /**
+   * @param value the value to scan
+   * @param start the index to start at
+   * @return the index of the next character that needs escaping, -1 if there is none
+   */
+  private int indexOf(final CharSequence value, final int start) {
+    for (int i = start; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < TABLE_SIZE && table[c] != null) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Appends a run of characters without creating a string for a <code>Writer</code>.
+   *
+   * @param output the appendable to append to
+   * @param value the value to take the characters from
+   * @param start the index of the first character
+   * @param end the index after the last character
+   * @throws IOException if the appendable fails
+   */
+  private static void append(final Appendable output, final CharSequence value, final int start, final int end)
+    throws IOException
+  {
+    if (start >= end) return;
+
+    if (output instanceof Writer && value instanceof String) {
+      ((Writer) output).write((String) value, start, end - start);
+    } else {
+      output.append(value, start, end);
+    }
+  }
+
+  /** @return the replacements for HTML */
+  private static String[] html() {
+    String[] table = new String[TABLE_SIZE];
+    table['&'] = "&amp;";
+    table['<'] = "&lt;";
+    table['>'] = "&gt;";
+    table['"'] = "&quot;";
+    table['\''] = "&#39;";
+    return table;
+  }
+
+  /** @return the replacements for JSON */
+  private static String[] json() {
+    String[] table = new String[TABLE_SIZE];
+    for (char c = 0; c < ' '; c++) {
+      table[c] = String.format("\\u%04x", (int) c);
+    }
+    table['\b'] = "\\b";
+    table['\f'] = "\\f";
+    table['\n'] = "\\n";
+    table['\r'] = "\\r";
+    table['\t'] = "\\t";
+    table['"'] = "\\\"";
+    table['\\'] = "\\\\";
+    return table;
+  }
+
+  /** @return the characters that require a CSV field to be quoted */
+  private static String[] csv() {
+    String[] table = new String[TABLE_SIZE];
+    table[','] = ",";
+    table['"'] = "\"";
+    table['\n'] = "\n";
+    table['\r'] = "\r";
+    return table;
+  }
+}
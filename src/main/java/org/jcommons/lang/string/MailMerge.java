@@ -0,0 +1,305 @@
+package org.jcommons.lang.string;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Bulk rendering of one {@link NamedTemplate} against many rows of values, e.g. for statement runs or serial letters.
+ *
+ * The values are given either as columns, one array per placeholder name, or as rows, one array per text in the order
+ * of {@link NamedTemplate#getNames()}. The rows are split into batches that are rendered in parallel using the common
+ * fork-join pool, each into a buffer of its own that is reused over and over again. While one window of batches is
+ * handed over to the sink by the calling thread, the next one is rendered already.
+ *
+ * The sink receives the texts in the order of the rows, along with the index of the row, on the calling thread. The
+ * character sequence is a view into a reused buffer and only valid during the call, so a sink that keeps the text
+ * has to call <code>toString()</code>.
+ *
+ * <pre>
+ *   NamedTemplate template = NamedTemplate.compile("Dear ${name}, your balance is ${balance}.");
+ *   MailMerge.merge(template, columns, (text, row) -&gt; writer.append(text).append('\n'));
+ * </pre>
+ *
+ * @author Thorsten Goeckeler
+ */
+public final class MailMerge
+{
+  /** number of rows rendered at once into the same buffer */
+  static final int BATCH_SIZE = 128;
+
+  /** hide sole constructor */
+  private MailMerge() {
+  }
+
+  /**
+   * Renders a template for each row of the given columns.
+   *
+   * @param template the template to render, must not be null
+   * @param columns the values of each row by placeholder name, all columns must be equally long, missing columns and
+   *          null cells are regarded as not set
+   * @param sink receives each text along with its row index in the order of the rows
+   * @return the number of rendered rows
+   * @throws IllegalArgumentException if the columns are not equally long
+   */
+  public static long merge(final NamedTemplate template, final Map<String, ? extends Object[]> columns,
+                           final ObjLongConsumer<? super CharSequence> sink)
+  {
+    List<String> names = template.getNames();
+    Object[][] slots = new Object[names.size()][];
+    int rows = -1;
+    String first = null;
+    for (Map.Entry<String, ? extends Object[]> column : columns.entrySet()) {
+      Object[] cells = column.getValue();
+      if (cells == null) continue;
+
+      if (rows < 0) {
+        rows = cells.length;
+        first = column.getKey();
+      } else if (cells.length != rows) {
+        throw new IllegalArgumentException("Column " + column.getKey() + " holds " + cells.length + " instead of "
+            + rows + " rows like column " + first);
+      }
+      int slot = template.indexOf(column.getKey());
+      if (slot >= 0) slots[slot] = cells;
+    }
+
+    return merge(template, slots, Math.max(rows, 0), null, sink);
+  }
+
+  /**
+   * Renders a template for each of the given rows.
+   *
+   * The rows are taken from the iterator by the calling thread only, and not held any longer than they are needed.
+   *
+   * @param template the template to render, must not be null
+   * @param rows the value of each slot in the order of {@link NamedTemplate#getNames()} for each text, a row may be
+   *          null or shorter if values are not set
+   * @param sink receives each text along with its row index in the order of the rows
+   * @return the number of rendered rows
+   */
+  public static long merge(final NamedTemplate template, final Iterator<? extends Object[]> rows,
+                           final ObjLongConsumer<? super CharSequence> sink)
+  {
+    return merge(template, null, 0, rows, sink);
+  }
+
+  /**
+   * Renders window after window of batches, rendering the next window while the current one is delivered.
+   *
+   * @param template the template to render
+   * @param columns the columns by slot, null to take the rows from the iterator
+   * @param size the number of rows of the columns
+   * @param rows the rows to render if there are no columns
+   * @param sink receives each text along with its row index
+   * @return the number of rendered rows
+   */
+  private static long merge(final NamedTemplate template, final Object[][] columns, final int size,
+                            final Iterator<? extends Object[]> rows, final ObjLongConsumer<? super CharSequence> sink)
+  {
+    // two batches per worker balance uneven rows without holding too many buffers
+    int batches = 2 * (ForkJoinPool.getCommonPoolParallelism() + 1);
+    Batch[] current = window(batches);
+    Batch[] next = window(batches);
+
+    long row = 0;
+    int filled = fill(current, row, columns, size, rows);
+    if (filled > 0) new Render(template, columns, current, 0, filled).invoke();
+
+    Slice slice = new Slice();
+    while (filled > 0) {
+      row = current[filled - 1].first + current[filled - 1].count;
+      int following = fill(next, row, columns, size, rows);
+      ForkJoinTask<Void> rendering = (following > 0) ? new Render(template, columns, next, 0, following).fork() : null;
+      try {
+        for (int i = 0; i < filled; i++) {
+          current[i].deliver(slice, sink);
+        }
+      } finally {
+        // the buffers of the next window must not be touched before they are rendered
+        if (rendering != null) rendering.join();
+      }
+
+      Batch[] delivered = current;
+      current = next;
+      next = delivered;
+      filled = following;
+    }
+    return row;
+  }
+
+  /**
+   * @param batches the number of batches
+   * @return a window of empty batches
+   */
+  private static Batch[] window(final int batches) {
+    Batch[] window = new Batch[batches];
+    for (int i = 0; i < batches; i++) {
+      window[i] = new Batch();
+    }
+    return window;
+  }
+
+  /**
+   * Assigns the next rows to the batches of a window.
+   *
+   * @param window the batches to fill
+   * @param first the index of the first row
+   * @param columns the columns by slot, null to take the rows from the iterator
+   * @param size the number of rows of the columns
+   * @param rows the rows to take if there are no columns
+   * @return the number of batches with any rows
+   */
+  private static int fill(final Batch[] window, final long first, final Object[][] columns, final int size,
+                          final Iterator<? extends Object[]> rows)
+  {
+    long row = first;
+    for (int i = 0; i < window.length; i++) {
+      Batch batch = window[i];
+      batch.first = row;
+      if (columns != null) {
+        batch.count = (int) Math.min(BATCH_SIZE, size - row);
+      } else {
+        batch.count = 0;
+        while (batch.count < BATCH_SIZE && rows.hasNext()) {
+          batch.rows[batch.count++] = rows.next();
+        }
+      }
+      if (batch.count <= 0) return i;
+      row += batch.count;
+    }
+    return window.length;
+  }
+
+  /** Consecutive rows rendered into one reused buffer. */
+  private static final class Batch
+  {
+    private final StringBuilder text = new StringBuilder();
+    /** the end of each rendered row within the text */
+    private final int[] ends = new int[BATCH_SIZE];
+    /** the rows taken from an iterator */
+    private final Object[][] rows = new Object[BATCH_SIZE][];
+    /** the values of the current row taken from columns */
+    private Object[] values;
+    private long first;
+    private int count;
+
+    /**
+     * Renders all rows of this batch.
+     *
+     * @param template the template to render
+     * @param columns the columns by slot, null if the rows have been taken from an iterator
+     */
+    void render(final NamedTemplate template, final Object[][] columns) {
+      text.setLength(0);
+      if (columns != null && values == null) values = new Object[columns.length];
+
+      for (int i = 0; i < count; i++) {
+        Object[] row = rows[i];
+        if (columns != null) {
+          int index = (int) first + i;
+          for (int slot = 0; slot < columns.length; slot++) {
+            values[slot] = (columns[slot] == null) ? null : columns[slot][index];
+          }
+          row = values;
+        }
+        template.renderTo(text, row);
+        ends[i] = text.length();
+        rows[i] = null;
+      }
+    }
+
+    /**
+     * Hands all rendered rows over to the sink.
+     *
+     * @param slice the view to reuse for each row
+     * @param sink receives each text along with its row index
+     */
+    void deliver(final Slice slice, final ObjLongConsumer<? super CharSequence> sink) {
+      int start = 0;
+      for (int i = 0; i < count; i++) {
+        slice.text = text;
+        slice.start = start;
+        slice.end = ends[i];
+        sink.accept(slice, first + i);
+        start = ends[i];
+      }
+    }
+  }
+
+  /** Renders a range of batches of a window in parallel. */
+  private static final class Render
+    extends RecursiveAction
+  {
+    private static final long serialVersionUID = -4263957616813850462L;
+
+    private final transient NamedTemplate template;
+    private final transient Object[][] columns;
+    private final transient Batch[] window;
+    private final int start;
+    private final int end;
+
+    /**
+     * @param template the template to render
+     * @param columns the columns by slot, null if the rows have been taken from an iterator
+     * @param window the batches to render
+     * @param start the index of the first batch to render
+     * @param end the index after the last batch to render
+     */
+    Render(final NamedTemplate template, final Object[][] columns, final Batch[] window, final int start,
+           final int end)
+    {
+      this.template = template;
+      this.columns = columns;
+      this.window = window;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start > 1) {
+        int middle = (start + end) >>> 1;
+        invokeAll(new Render(template, columns, window, start, middle),
+            new Render(template, columns, window, middle, end));
+      } else {
+        window[start].render(template, columns);
+      }
+    }
+  }
+
+  /** A reused view onto a rendered row within the text of a batch. */
+  private static final class Slice
+    implements CharSequence
+  {
+    private StringBuilder text;
+    private int start;
+    private int end;
+
+    @Override
+    public int length() {
+      return end - start;
+    }
+
+    @Override
+    public char charAt(final int index) {
+      if (index < 0 || index >= length()) throw new StringIndexOutOfBoundsException(index);
+      return text.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int from, final int to) {
+      if (from < 0 || to > length() || from > to) throw new StringIndexOutOfBoundsException(from);
+      return text.substring(start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+      return text.substring(start, end);
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package org.jcommons.lang.string;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+
+import org.jcommons.lang.cache.BoundedCache;
+
+/**
+ * Bounded, concurrent cache of compiled message formats, keyed by pattern and locale.
+ *
+ * Compiling a {@link MessageFormat} means parsing its pattern, which by far outweighs formatting the arguments. This
+ * cache compiles each pattern once per locale into a {@link MessageTemplate} and keeps the most recently used ones,
+ * so ad hoc messages as created by {@link StringUtils#message(String, Object...)} cost about the same as a format
+ * held by the caller.
+ *
+ * A <code>MessageFormat</code> is mutable and its sub formats, e.g. for <code>{0,number,#.##}</code>, are not
+ * thread-safe. Compiled formats without sub formats only read their state while formatting and are shared by all
+ * threads, all others are cloned for each use, which is still much cheaper than parsing the pattern again.
+ *
+ * @author Thorsten Goeckeler
+ */
+public final class MessageFormatCache
+{
+  /** the cache used by {@link StringUtils#message(String, Object...)} */
+  private static final MessageFormatCache GLOBAL = new MessageFormatCache(1024);
+
+  private final BoundedCache<Key, MessageTemplate> formats;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param capacity the maximum number of formats to be cached, at least 1
+   */
+  public MessageFormatCache(final int capacity) {
+    this.formats = new BoundedCache<Key, MessageTemplate>(capacity);
+  }
+
+  /** @return the cache shared by all callers that do not bring their own */
+  public static MessageFormatCache global() {
+    return GLOBAL;
+  }
+
+  /**
+   * Formats a message with the cached format for the given pattern and locale.
+   *
+   * @param pattern the pattern of the message, must not be null
+   * @param locale the locale to format the arguments with, must not be null
+   * @param arguments the arguments of the message
+   * @return the formatted message
+   * @throws IllegalArgumentException if the pattern is invalid or an argument does not fit its format
+   */
+  public String format(final String pattern, final Locale locale, final Object... arguments) {
+    return getTemplate(pattern, locale).format(arguments);
+  }
+
+  /**
+   * Returns the compiled template for the given pattern and locale.
+   *
+   * @param pattern the pattern of the message, must not be null
+   * @param locale the locale to format the arguments with, must not be null
+   * @return the compiled template, which is thread-safe
+   * @throws IllegalArgumentException if the pattern is invalid
+   */
+  public MessageTemplate getTemplate(final String pattern, final Locale locale) {
+    return formats.get(new Key(pattern, locale), key -> MessageTemplate.compile(key.pattern, key.locale));
+  }
+
+  /**
+   * Returns a format for the given pattern and locale that is owned by the caller and may be modified.
+   *
+   * The cached format itself is never handed out, use {@link #format(String, Locale, Object...)} to format without
+   * creating a copy.
+   *
+   * @param pattern the pattern of the message, must not be null
+   * @param locale the locale to format the arguments with, must not be null
+   * @return a copy of the compiled format
+   * @throws IllegalArgumentException if the pattern is invalid
+   */
+  public MessageFormat getFormat(final String pattern, final Locale locale) {
+    return getTemplate(pattern, locale).toFormat();
+  }
+
+  /** @return the number of cached formats */
+  public int size() {
+    return formats.size();
+  }
+
+  /** @return the number of lookups that found a compiled format */
+  public long getHits() {
+    return formats.getHits();
+  }
+
+  /** @return the number of lookups that had to compile the pattern */
+  public long getMisses() {
+    return formats.getMisses();
+  }
+
+  /** @return the number of formats that have been evicted to make room for others */
+  public long getEvictions() {
+    return formats.getEvictions();
+  }
+
+  /** @return the ratio of hits to all lookups, 0 if there were none */
+  public double getHitRate() {
+    return formats.getHitRate();
+  }
+
+  /**
+   * Removes all formats and resets the statistics.
+   *
+   * @return this to allow chaining
+   */
+  public MessageFormatCache clear() {
+    formats.clear();
+    return this;
+  }
+
+  /** @return a summary of the statistics */
+  @Override
+  public String toString() {
+    return "MessageFormatCache[size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions="
+        + getEvictions() + "]";
+  }
+
+  /** An immutable pair of pattern and locale. */
+  private static final class Key
+  {
+    private final String pattern;
+    private final Locale locale;
+    private final int hash;
+
+    /**
+     * @param pattern the pattern of the message
+     * @param locale the locale of the message
+     */
+    Key(final String pattern, final Locale locale) {
+      this.pattern = pattern;
+      this.locale = locale;
+      this.hash = 31 * pattern.hashCode() + locale.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other) return true;
+      if (!(other instanceof Key)) return false;
+
+      Key key = (Key) other;
+      return hash == key.hash && pattern.equals(key.pattern) && locale.equals(key.locale);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
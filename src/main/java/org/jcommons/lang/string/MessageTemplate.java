@@ -0,0 +1,317 @@
+package org.jcommons.lang.string;
+
+import java.io.IOException;
+import java.text.Format;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Immutable and thread-safe message pattern with positional placeholders such as <code>{0}</code> and
+ * <code>{1}</code>, compiled once into a list of literals and argument indices.
+ *
+ * Most messages only use plain placeholders without sub formats. These are rendered directly into a
+ * {@link StringBuilder} or {@link Appendable} without the {@link MessageFormat} machinery, and the overloads for one
+ * and two arguments do not even create an argument array. The result is exactly the same as with
+ * <code>MessageFormat</code>, including its quoting rules: <code>''</code> is a single quote, and text within single
+ * quotes is taken as is.
+ *
+ * Patterns with sub formats, e.g. <code>{0,number,#.##}</code>, as well as numbers and dates as arguments, which are
+ * formatted according to the locale, are handed over to a compiled <code>MessageFormat</code>. Invalid patterns are
+ * rejected as by <code>MessageFormat</code>.
+ *
+ * <pre>
+ *   MessageTemplate template = MessageTemplate.compile("Hello {0}!", Locale.UK);
+ *   String message = template.format("World");
+ * </pre>
+ *
+ * @author Thorsten Goeckeler
+ * @see MessageFormatCache
+ */
+public final class MessageTemplate
+{
+  /** maximum number of digits of an argument index, as <code>MessageFormat</code> allows indices below 10000 */
+  private static final int MAX_DIGITS = 4;
+  /** estimated length of an argument value */
+  private static final int ARGUMENT_LENGTH = 16;
+
+  private final String pattern;
+  private final Locale locale;
+  /** the compiled format, shared if it has no sub formats, otherwise only used as prototype */
+  private final MessageFormat format;
+  /** true if the format has no sub formats, so formatting does not change any state */
+  private final boolean shared;
+
+  /** the literals before, between and after the arguments, null if the pattern is not plain */
+  private final String[] literals;
+  /** the argument index of each placeholder, null if the pattern is not plain */
+  private final int[] arguments;
+  private final int literalLength;
+
+  /**
+   * @param pattern the pattern of the message
+   * @param locale the locale to format numbers and dates with
+   */
+  private MessageTemplate(final String pattern, final Locale locale) {
+    this.pattern = pattern;
+    this.locale = locale;
+    this.format = new MessageFormat(pattern, locale);
+
+    boolean stateless = true;
+    for (Format subformat : format.getFormats()) {
+      stateless &= subformat == null;
+    }
+    this.shared = stateless;
+
+    List<String> segments = stateless ? split(pattern) : null;
+    if (segments == null) {
+      this.literals = null;
+      this.arguments = null;
+      this.literalLength = pattern.length();
+    } else {
+      int count = segments.size() / 2;
+      this.literals = new String[count + 1];
+      this.arguments = new int[count];
+      int length = 0;
+      for (int i = 0; i <= count; i++) {
+        literals[i] = segments.get(2 * i);
+        length += literals[i].length();
+        if (i < count) arguments[i] = Integer.parseInt(segments.get(2 * i + 1));
+      }
+      this.literalLength = length;
+    }
+  }
+
+  /**
+   * Compiles the given pattern.
+   *
+   * @param pattern the pattern as used by {@link MessageFormat}, must not be null
+   * @param locale the locale to format numbers and dates with, must not be null
+   * @return the compiled template, never null
+   * @throws IllegalArgumentException if the pattern is invalid
+   */
+  public static MessageTemplate compile(final String pattern, final Locale locale) {
+    return new MessageTemplate(Objects.requireNonNull(pattern, "pattern"), Objects.requireNonNull(locale, "locale"));
+  }
+
+  /** @return the pattern this template has been compiled from */
+  public String getPattern() {
+    return pattern;
+  }
+
+  /** @return the locale to format numbers and dates with */
+  public Locale getLocale() {
+    return locale;
+  }
+
+  /** @return true if the pattern has plain placeholders only, so it can be rendered without a MessageFormat */
+  public boolean isPlain() {
+    return literals != null;
+  }
+
+  /**
+   * Returns a {@link MessageFormat} for this pattern that is owned by the caller and may be modified.
+   *
+   * @return a copy of the compiled format
+   */
+  public MessageFormat toFormat() {
+    return (MessageFormat) format.clone();
+  }
+
+  /** @return the compiled format if it may be shared, otherwise a copy for the calling thread */
+  private MessageFormat formatter() {
+    return shared ? format : (MessageFormat) format.clone();
+  }
+
+  /**
+   * Formats the message with a single argument.
+   *
+   * @param argument the argument of the message
+   * @return the formatted message
+   */
+  public String format(final Object argument) {
+    if (!isPlain() || isTyped(argument)) return formatter().format(new Object[] { argument });
+    return StringBuilderPool.toString(render(StringBuilderPool.acquire(capacity()), 1, argument, null, null));
+  }
+
+  /**
+   * Formats the message with two arguments.
+   *
+   * @param argument1 the first argument of the message
+   * @param argument2 the second argument of the message
+   * @return the formatted message
+   */
+  public String format(final Object argument1, final Object argument2) {
+    if (!isPlain() || isTyped(argument1) || isTyped(argument2)) {
+      return formatter().format(new Object[] { argument1, argument2 });
+    }
+    return StringBuilderPool.toString(render(StringBuilderPool.acquire(capacity()), 2, argument1, argument2, null));
+  }
+
+  /**
+   * Formats the message with any number of arguments.
+   *
+   * @param arguments the arguments of the message, missing arguments are left as placeholders
+   * @return the formatted message
+   */
+  public String format(final Object... arguments) {
+    if (!isPlain(arguments)) return formatter().format(arguments);
+    StringBuilder text = StringBuilderPool.acquire(capacity());
+    return StringBuilderPool.toString(render(text, count(arguments), null, null, arguments));
+  }
+
+  /**
+   * Formats the message with any number of arguments and appends it to the given builder.
+   *
+   * @param text the builder to append the message to, must not be null
+   * @param arguments the arguments of the message, missing arguments are left as placeholders
+   * @return the given builder
+   */
+  public StringBuilder formatTo(final StringBuilder text, final Object... arguments) {
+    if (!isPlain(arguments)) return text.append(formatter().format(arguments));
+    return render(text, count(arguments), null, null, arguments);
+  }
+
+  /**
+   * Formats the message with any number of arguments and appends it to the given appendable.
+   *
+   * @param <A> the type of the appendable
+   * @param appendable the appendable to append the message to, must not be null
+   * @param arguments the arguments of the message, missing arguments are left as placeholders
+   * @return the given appendable
+   * @throws IOException if the appendable fails
+   */
+  public <A extends Appendable> A formatTo(final A appendable, final Object... arguments)
+    throws IOException
+  {
+    if (!isPlain(arguments)) {
+      appendable.append(formatter().format(arguments));
+      return appendable;
+    }
+
+    int count = count(arguments);
+    appendable.append(literals[0]);
+    for (int i = 0; i < this.arguments.length; i++) {
+      int index = this.arguments[i];
+      if (index < count) {
+        appendable.append(String.valueOf(arguments[index]));
+      } else {
+        appendable.append('{').append(Integer.toString(index)).append('}');
+      }
+      appendable.append(literals[i + 1]);
+    }
+    return appendable;
+  }
+
+  /** @return the pattern of this template */
+  @Override
+  public String toString() {
+    return pattern;
+  }
+
+  /**
+   * Renders a plain pattern.
+   *
+   * @param text the builder to append the message to
+   * @param count the number of arguments
+   * @param first the first argument if there is no array of arguments
+   * @param second the second argument if there is no array of arguments
+   * @param all all arguments, null to use the first and second argument
+   * @return the given builder
+   */
+  private StringBuilder render(final StringBuilder text, final int count, final Object first, final Object second,
+                               final Object[] all)
+  {
+    text.append(literals[0]);
+    for (int i = 0; i < arguments.length; i++) {
+      int index = arguments[i];
+      if (index >= count) {
+        text.append('{').append(index).append('}');
+      } else {
+        text.append((all != null) ? all[index] : (index == 0) ? first : second);
+      }
+      text.append(literals[i + 1]);
+    }
+    return text;
+  }
+
+  /** @return the estimated length of a formatted message */
+  private int capacity() {
+    return literalLength + ARGUMENT_LENGTH * ((arguments == null) ? 1 : arguments.length);
+  }
+
+  /**
+   * @param arguments the arguments of the message, can be null
+   * @return true if the message can be rendered without a MessageFormat
+   */
+  private boolean isPlain(final Object[] arguments) {
+    if (!isPlain()) return false;
+    if (arguments != null) {
+      for (Object argument : arguments) {
+        if (isTyped(argument)) return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param arguments the arguments of the message, can be null
+   * @return the number of arguments
+   */
+  private static int count(final Object[] arguments) {
+    return (arguments == null) ? 0 : arguments.length;
+  }
+
+  /**
+   * @param argument an argument of the message
+   * @return true if a MessageFormat would format the argument according to the locale
+   */
+  private static boolean isTyped(final Object argument) {
+    return argument instanceof Number || argument instanceof Date;
+  }
+
+  /**
+   * Splits a pattern into literals and argument indices following the quoting rules of {@link MessageFormat}.
+   *
+   * @param pattern the pattern to split
+   * @return literals and argument indices in turn, starting and ending with a literal, null if the pattern has any
+   *         placeholder that is not a plain argument index
+   */
+  private static List<String> split(final String pattern) {
+    List<String> segments = new ArrayList<String>();
+    StringBuilder literal = new StringBuilder(pattern.length());
+    boolean quoted = false;
+
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (c == '\'') {
+        if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+          literal.append(c);
+          i++;
+        } else {
+          quoted = !quoted;
+        }
+      } else if (c == '{' && !quoted) {
+        int end = i + 1;
+        while (end < pattern.length() && pattern.charAt(end) >= '0' && pattern.charAt(end) <= '9') {
+          end++;
+        }
+        if (end == i + 1 || end - i - 1 > MAX_DIGITS || end >= pattern.length() || pattern.charAt(end) != '}') {
+          return null;
+        }
+        segments.add(literal.toString());
+        segments.add(pattern.substring(i + 1, end));
+        literal.setLength(0);
+        i = end;
+      } else {
+        literal.append(c);
+      }
+    }
+
+    segments.add(literal.toString());
+    return segments;
+  }
+}
@@ -1,9 +1,14 @@
 package org.jcommons.lang.string;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-
-import org.apache.commons.lang3.text.StrSubstitutor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * String utilities to support named messages.
@@ -16,14 +21,59 @@ import org.apache.commons.lang3.text.StrSubstitutor;
  *   NamedString.message("Hello ${name}.").with("name", "John").toString();
  * </pre>
  *
+ * A named string may be reused for any number of messages by calling {@link #clear()} and setting new values. The
+ * values are held in a compact array, and the text is rendered into a buffer that is kept along with the compiled
+ * text, so rendering the same text again only creates the resulting string, and nothing at all when it is appended
+ * to a given builder with {@link #renderTo(StringBuilder)}, given that all values are character sequences. A named
+ * string is not thread-safe.
+ *
+ * The text is rendered anew whenever it is asked for, so values that are changed in place, e.g. a list that is still
+ * being filled, show as they are right now. As a character sequence a named string renders its text whenever its
+ * length is asked for, and serves the characters from that rendering, so a single pass over the characters renders
+ * the text only once. Values that are expensive to determine can be given as {@link Supplier}, which is called once
+ * per rendering and not before the text is rendered, so messages that are never looked at, e.g. for disabled log
+ * levels, cost next to nothing:
+ * <pre>
+ *   log.debug(NamedString.message("State: ${state}").with("state", () -&gt; dump(model)));
+ * </pre>
+ *
+ * Numbers and dates are formatted by typed placeholders, compiled once along with the text in the default locale:
+ * <pre>
+ *   NamedString.message("Due on ${due,date,dd.MM.yyyy}: ${amount,number,#,##0.00}")
+ *       .with("due", LocalDate.now()).with("amount", 12.5).toString();
+ * </pre>
+ *
+ * A placeholder name followed by a comma and <code>number</code>, <code>date</code> or <code>time</code> is therefore
+ * typed and bound to the name before the comma, so a value for <code>"a,date"</code> is not found by
+ * <code>${a,date}</code> anymore. Names with any other text after the comma, or with an invalid pattern such as
+ * <code>${a,number,#.#.#}</code>, are taken as they are.
+ *
  * @author Thorsten Goeckeler
  *
  * @see org.apache.commons.lang.text.StrSubstitutor
+ * @see NamedTemplate
  */
 public class NamedString
+  implements CharSequence
 {
   private String text;
-  private final Map<String, Object> values = new HashMap<String, Object>();
+  /** the compiled text, null if not compiled yet */
+  private NamedTemplate template;
+  private final NamedValues values = new NamedValues();
+  /** the value and the string of each slot of the compiled text, reused for each rendering */
+  private Object[] slots;
+  private CharSequence[] strings;
+  /** the retained buffer to render the text into, dropped once it has grown too large to be retained */
+  private StringBuilder builder = new StringBuilder();
+  /** the text as rendered for the character sequence view, null if not rendered since the last change */
+  private String view;
+  /** counts the renderings, so deferred values are determined once per rendering */
+  private int rendering;
+  /** the escaping of all values and of single values by placeholder name, null if there is none */
+  private Escaping escaping;
+  private Map<String, Escaping> escapings;
+  /** looks up the value of a placeholder name, evaluating suppliers */
+  private final Function<String, Object> lookup = this::lookup;
 
   /** Creates an empty message. */
   public NamedString() {
@@ -66,6 +116,8 @@ public class NamedString
    */
   public NamedString text(final String text) {
     this.text = text;
+    this.template = null;
+    this.view = null;
     return this;
   }
 
@@ -77,7 +129,53 @@ public class NamedString
    * @return this to allow chaining
    */
   public NamedString with(final String name, final Object value) {
-    values.put(name, value);
+    // a value without name can never be looked up
+    if (name != null) values.put(name, value);
+    view = null;
+    return this;
+  }
+
+  /**
+   * Define a value for a given placeholder name that is determined only if and when the text is rendered.
+   *
+   * The supplier is called once per rendering of the text, no matter how often the placeholder occurs.
+   *
+   * @param name the name of a placeholder, e.g. "name" for "${name}"
+   * @param value supplies the value of this placeholder, can be null if the placeholder has no value
+   * @return this to allow chaining
+   */
+  public NamedString with(final String name, final Supplier<?> value) {
+    return with(name, (value == null) ? null : new Deferred(value));
+  }
+
+  /**
+   * Escapes all values for the format of the text, e.g. HTML or JSON, while the text is rendered.
+   *
+   * @param escaping the escaping of all values, null to not escape them
+   * @return this to allow chaining
+   * @see NamedTemplate#escape(Escaping)
+   */
+  public NamedString escape(final Escaping escaping) {
+    this.escaping = escaping;
+    this.escapings = null;
+    this.template = null;
+    this.view = null;
+    return this;
+  }
+
+  /**
+   * Escapes the value of a single placeholder for the format of the text while the text is rendered.
+   *
+   * @param name the name of a placeholder, e.g. "name" for "${name}"
+   * @param escaping the escaping of its value, null to not escape it
+   * @return this to allow chaining
+   * @see NamedTemplate#escape(String, Escaping)
+   */
+  public NamedString escape(final String name, final Escaping escaping) {
+    if (escapings == null) escapings = new LinkedHashMap<String, Escaping>();
+    escapings.put(name, escaping);
+    this.template = null;
+    this.view = null;
     return this;
   }
 
@@ -88,16 +186,175 @@ public class NamedString
    */
   public NamedString clear() {
     values.clear();
+    view = null;
     return this;
   }
 
   /** @return the current text with all placeholders resolved */
   @Override
   public String toString() {
-    StringBuilder string = new StringBuilder();
+    String result = StringUtils.EMPTY;
     if (StringUtils.isNotEmpty(text)) {
-      string.append(StrSubstitutor.replace(text, values));
+      builder.setLength(0);
+      result = render(builder).toString();
+      if (builder.capacity() > StringBuilderPool.MAX_CAPACITY) builder = new StringBuilder();
+    }
+    view = result;
+    return result;
+  }
+
+  /** @return the length of the text, which is rendered anew for the character sequence view */
+  @Override
+  public int length() {
+    return toString().length();
+  }
+
+  /**
+   * @param index the index of a character of the rendered text
+   * @return the character at the given index
+   */
+  @Override
+  public char charAt(final int index) {
+    return view().charAt(index);
+  }
+
+  /**
+   * @param start the index of the first character, inclusive
+   * @param end the index of the last character, exclusive
+   * @return the given part of the rendered text
+   */
+  @Override
+  public CharSequence subSequence(final int start, final int end) {
+    return view().subSequence(start, end);
+  }
+
+  /** @return the text as rendered for the character sequence view, rendered if the text or any value has changed */
+  private String view() {
+    return (view == null) ? toString() : view;
+  }
+
+  /**
+   * Appends the current text with all placeholders resolved to the given builder.
+   *
+   * @param output the builder to append the text to, must not be null
+   * @return the given builder
+   */
+  public StringBuilder renderTo(final StringBuilder output) {
+    if (StringUtils.isEmpty(text)) return output;
+    return render(output);
+  }
+
+  /**
+   * Streams the current text with all placeholders resolved to an appendable, e.g. a {@link java.io.Writer}.
+   *
+   * The text is not created as a whole but written literal by literal and value by value, so even large texts do
+   * not need any additional memory.
+   *
+   * @param <A> the type of the appendable
+   * @param output the appendable to write the text to, must not be null
+   * @return the given appendable
+   * @throws IOException if the appendable fails
+   */
+  public <A extends Appendable> A renderTo(final A output)
+    throws IOException
+  {
+    if (StringUtils.isEmpty(text)) return output;
+    rendering++;
+    return template().renderTo(output, lookup);
+  }
+
+  /** @return the number of bytes of the current text with all placeholders resolved encoded as UTF-8 */
+  public long encodedLength() {
+    if (StringUtils.isEmpty(text)) return 0L;
+    rendering++;
+    return template().encodedLength(lookup);
+  }
+
+  /**
+   * Puts the current text with all placeholders resolved as UTF-8 into a buffer.
+   *
+   * @param buffer the buffer to put the text into, must not be null
+   * @return the given buffer, positioned after the text
+   * @throws BufferOverflowException if the buffer has less remaining bytes than {@link #encodedLength()}
+   * @see NamedTemplate#renderTo(ByteBuffer, Object...)
+   */
+  public ByteBuffer renderTo(final ByteBuffer buffer) {
+    if (StringUtils.isEmpty(text)) return buffer;
+    rendering++;
+    return template().renderTo(buffer, lookup);
+  }
+
+  /** @return the compiled text, compiled once until the text changes */
+  private NamedTemplate template() {
+    if (template == null) {
+      template = NamedTemplate.compile(text);
+      if (escaping != null) template = template.escape(escaping);
+      if (escapings != null) {
+        for (Map.Entry<String, Escaping> entry : escapings.entrySet()) {
+          if (template.indexOf(entry.getKey()) >= 0) template = template.escape(entry.getKey(), entry.getValue());
+        }
+      }
+      int size = template.getNames().size();
+      if (slots == null || slots.length < size) {
+        slots = new Object[size];
+        strings = new CharSequence[size];
+      }
+    }
+    return template;
+  }
+
+  /**
+   * Renders the text with the current values, reusing the arrays of this named string.
+   *
+   * @param output the builder to append the text to
+   * @return the given builder
+   */
+  private StringBuilder render(final StringBuilder output) {
+    NamedTemplate compiled = template();
+    rendering++;
+    List<String> names = compiled.getNames();
+    for (int i = 0; i < names.size(); i++) {
+      slots[i] = lookup(names.get(i));
+    }
+    compiled.renderTo(output, slots, lookup, strings);
+    // do not hold on to the values beyond rendering
+    Arrays.fill(slots, null);
+    Arrays.fill(strings, null);
+    return output;
+  }
+
+  /**
+   * @param name the name of a placeholder
+   * @return the value of the placeholder, determined by its supplier if it was deferred
+   */
+  private Object lookup(final String name) {
+    Object value = values.get(name);
+    return (value instanceof Deferred) ? ((Deferred) value).get(rendering) : value;
+  }
+
+  /** A value that is determined once per rendering. */
+  private static final class Deferred
+  {
+    private final Supplier<?> supplier;
+    private Object value;
+    /** the rendering the value was determined for, 0 if not determined yet */
+    private int rendering;
+
+    /** @param supplier supplies the value */
+    Deferred(final Supplier<?> supplier) {
+      this.supplier = supplier;
+    }
+
+    /**
+     * @param current the current rendering
+     * @return the value, which is determined on the first call of each rendering
+     */
+    Object get(final int current) {
+      if (rendering != current) {
+        value = supplier.get();
+        rendering = current;
+      }
+      return value;
     }
-    return string.toString();
   }
 }
@@ -0,0 +1,981 @@
+package org.jcommons.lang.string;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.text.StrLookup;
+import org.apache.commons.lang3.text.StrSubstitutor;
+
+/**
+ * Immutable and thread-safe text with named placeholders such as <code>${name}</code>, compiled once so it can be
+ * rendered any number of times without scanning the text again.
+ *
+ * Each distinct placeholder name is assigned a slot when the template is compiled, so values can be given as an array
+ * in the order of {@link #getNames()}, or looked up by name once per render. The result is the same as with
+ * {@link NamedString} and {@link StrSubstitutor}: <code>$${name}</code> yields <code>${name}</code>,
+ * <code>${name:-default}</code> yields the default if there is no value, and placeholders without value are left as
+ * is. Values that contain placeholders themselves are substituted recursively by <code>StrSubstitutor</code>.
+ *
+ * <pre>
+ *   NamedTemplate template = NamedTemplate.compile("Hello ${name}, welcome to ${city}.");
+ *   String text = template.render("John", "Berlin");
+ * </pre>
+ *
+ * For byte oriented output such as network protocols the text can be rendered as UTF-8 straight into a
+ * {@link ByteBuffer} or {@link WritableByteChannel}. The literals are encoded once, on the first such render, so only
+ * the values are encoded each time, and {@link #encodedLength(Object...)} tells the exact number of bytes beforehand.
+ *
+ * Placeholders may format their values, e.g. <code>${amount,number,#,##0.00}</code> or
+ * <code>${due,date,dd.MM.yyyy}</code>, with the types and styles of {@link java.text.MessageFormat}, except that date
+ * and time patterns are those of {@link java.time.format.DateTimeFormatter}. The formats are compiled once along with
+ * the text, in the locale given to {@link #compile(String, Locale)}, and values of another type are taken as they are.
+ * A name is only typed if it is followed by <code>number</code>, <code>date</code> or <code>time</code> and a valid
+ * style, any other placeholder with a comma such as <code>${a,b}</code> is bound to the name as it is.
+ *
+ * Values may be escaped for the format of the text, e.g. HTML or JSON, by a template derived with
+ * {@link #escape(Escaping)} for all placeholders or {@link #escape(String, Escaping)} for single ones. Escaping is
+ * applied while the values are written, so there is no escaped copy of a value. Escaped values are taken literally,
+ * even if they contain placeholders themselves.
+ *
+ * @author Thorsten Goeckeler
+ * @see NamedString
+ */
+public final class NamedTemplate
+{
+  private static final String PREFIX = "${";
+  private static final char ESCAPE = '$';
+  private static final char SUFFIX = '}';
+  private static final String DEFAULT_DELIMITER = ":-";
+  /** encloses the index of an escaped value that is kept from <code>StrSubstitutor</code>, a noncharacter */
+  private static final char MARK = '\uFFFF';
+  /** estimated length of a value */
+  private static final int VALUE_LENGTH = 16;
+  /** number of characters of a value that are copied at once to a writer */
+  private static final int CHUNK_SIZE = 1024;
+  /** number of bytes that are encoded at once before being written to a channel */
+  private static final int BUFFER_SIZE = 8192;
+
+  private final String text;
+  /** the distinct placeholder names in the order of their slots */
+  private final String[] names;
+  private final List<String> nameList;
+
+  /** the literals before, between and after the placeholders */
+  private final String[] literals;
+  /** the slot of each placeholder */
+  private final int[] slots;
+  /** the default value of each placeholder, null if it has none */
+  private final String[] defaults;
+  /** the text of each placeholder, which is kept if there is no value */
+  private final String[] placeholders;
+  /** false if the placeholders are too complex to be rendered without <code>StrSubstitutor</code> */
+  private final boolean plain;
+  private final int literalLength;
+  /** the format of each placeholder, null if no placeholder is typed */
+  private final TypedFormat[] formats;
+  /** the escaping of each slot, null if no value is escaped */
+  private final Escaping[] escapings;
+  /** the UTF-8 encoded parts of the text, null until the text is rendered as bytes first */
+  private volatile Encoded encoded;
+
+  /**
+   * @param text the text to compile
+   * @param locale the locale to format typed placeholders with
+   */
+  private NamedTemplate(final String text, final Locale locale) {
+    this.text = text;
+
+    List<String> literalList = new ArrayList<String>();
+    List<String> placeholderList = new ArrayList<String>();
+    Map<String, Integer> slotMap = new LinkedHashMap<String, Integer>();
+    List<Integer> slotList = new ArrayList<Integer>();
+    List<String> defaultList = new ArrayList<String>();
+    List<TypedFormat> formatList = new ArrayList<TypedFormat>();
+    boolean simple = true;
+    boolean typed = false;
+
+    StringBuilder literal = new StringBuilder(text.length());
+    int index = 0;
+    while (index < text.length()) {
+      int start = text.indexOf(PREFIX, index);
+      if (start < 0) break;
+
+      if (start > 0 && text.charAt(start - 1) == ESCAPE) {
+        // escaped placeholder, the escape character is dropped
+        literal.append(text, index, start - 1).append(PREFIX);
+        index = start + PREFIX.length();
+        continue;
+      }
+
+      // an unterminated placeholder is kept as is along with the rest of the text
+      int end = text.indexOf(SUFFIX, start + PREFIX.length());
+      if (end < 0) break;
+
+      String expression = text.substring(start + PREFIX.length(), end);
+      String name = expression;
+      String defaultValue = null;
+      int delimiter = expression.indexOf(DEFAULT_DELIMITER);
+      if (delimiter >= 0) {
+        name = expression.substring(0, delimiter);
+        defaultValue = expression.substring(delimiter + DEFAULT_DELIMITER.length());
+      }
+      simple &= expression.indexOf(PREFIX) < 0 && isInert(defaultValue);
+
+      // names with an unknown type or an invalid pattern such as "a,b" or "a,number,#.#.#" are taken as they are
+      TypedFormat format = null;
+      int comma = name.indexOf(',');
+      if (comma > 0) format = format(name.substring(comma + 1), locale);
+      if (format != null) {
+        name = name.substring(0, comma);
+        typed = true;
+      }
+      formatList.add(format);
+
+      literalList.add(literal.append(text, index, start).toString());
+      literal.setLength(0);
+      placeholderList.add(text.substring(start, end + 1));
+      Integer slot = slotMap.get(name);
+      if (slot == null) {
+        slot = slotMap.size();
+        slotMap.put(name, slot);
+      }
+      slotList.add(slot);
+      defaultList.add(defaultValue);
+      index = end + 1;
+    }
+    literalList.add(literal.append(text, index, text.length()).toString());
+
+    this.names = slotMap.keySet().toArray(new String[slotMap.size()]);
+    this.nameList = Collections.unmodifiableList(Arrays.asList(names.clone()));
+    this.literals = literalList.toArray(new String[literalList.size()]);
+    this.placeholders = placeholderList.toArray(new String[placeholderList.size()]);
+    this.defaults = defaultList.toArray(new String[defaultList.size()]);
+    this.slots = new int[slotList.size()];
+    for (int i = 0; i < slots.length; i++) {
+      slots[i] = slotList.get(i);
+    }
+    int length = 0;
+    for (String part : literals) {
+      length += part.length();
+    }
+    this.literalLength = length;
+    this.plain = simple;
+    this.formats = typed ? formatList.toArray(new TypedFormat[formatList.size()]) : null;
+    this.escapings = null;
+  }
+
+  /**
+   * @param text the text the parts have been taken from
+   * @param names the distinct placeholder names in the order of their slots
+   * @param literals the literals before, between and after the placeholders
+   * @param slots the slot of each placeholder
+   * @param defaults the default value of each placeholder, null if it has none
+   * @param specs the type and style of each placeholder, null if it is not typed
+   * @param locale the locale to format typed placeholders with
+   */
+  private NamedTemplate(final String text, final String[] names, final String[] literals, final int[] slots,
+                        final String[] defaults, final String[] specs, final Locale locale)
+  {
+    this.text = text;
+    this.names = names.clone();
+    this.nameList = Collections.unmodifiableList(Arrays.asList(names.clone()));
+    this.literals = literals.clone();
+    this.slots = slots.clone();
+    this.defaults = defaults.clone();
+    this.placeholders = new String[slots.length];
+
+    TypedFormat[] formatArray = new TypedFormat[slots.length];
+    boolean simple = true;
+    boolean typed = false;
+    for (String name : names) {
+      simple &= name.indexOf(PREFIX) < 0;
+    }
+    for (int i = 0; i < slots.length; i++) {
+      String spec = specs[i];
+      if (spec != null) {
+        formatArray[i] = TypedFormat.compile(spec, locale);
+        if (formatArray[i] == null) throw new IllegalArgumentException("Unknown type of placeholder: " + spec);
+        typed = true;
+      }
+      String defaultValue = defaults[i];
+      placeholders[i] = PREFIX + names[slots[i]] + ((spec == null) ? "" : "," + spec)
+          + ((defaultValue == null) ? "" : DEFAULT_DELIMITER + defaultValue) + SUFFIX;
+      simple &= isInert(defaultValue);
+    }
+    int length = 0;
+    for (String part : literals) {
+      length += part.length();
+    }
+    this.literalLength = length;
+    this.plain = simple;
+    this.formats = typed ? formatArray : null;
+    this.escapings = null;
+  }
+
+  /**
+   * Compiles the given text, typed placeholders are formatted in the default locale.
+   *
+   * @param text the text with placeholders, must not be null
+   * @return the compiled template, never null
+   */
+  public static NamedTemplate compile(final String text) {
+    return compile(text, Locale.getDefault(Locale.Category.FORMAT));
+  }
+
+  /**
+   * Compiles the given text.
+   *
+   * @param text the text with placeholders, must not be null
+   * @param locale the locale to format typed placeholders with, must not be null
+   * @return the compiled template, never null
+   */
+  public static NamedTemplate compile(final String text, final Locale locale) {
+    return new NamedTemplate(Objects.requireNonNull(text, "text"), Objects.requireNonNull(locale, "locale"));
+  }
+
+  /**
+   * @param template the template to copy
+   * @param escapings the escaping of each slot, null if no value is escaped
+   */
+  private NamedTemplate(final NamedTemplate template, final Escaping[] escapings) {
+    this.text = template.text;
+    this.names = template.names;
+    this.nameList = template.nameList;
+    this.literals = template.literals;
+    this.slots = template.slots;
+    this.defaults = template.defaults;
+    this.placeholders = template.placeholders;
+    this.plain = template.plain;
+    this.literalLength = template.literalLength;
+    this.formats = template.formats;
+    this.escapings = escapings;
+    this.encoded = template.encoded;
+  }
+
+  /**
+   * Creates a template from parts that have been determined beforehand, e.g. by generated code, so the text does not
+   * need to be parsed again.
+   *
+   * @param text the text the parts have been taken from, must not be null
+   * @param names the distinct placeholder names in the order of their slots
+   * @param literals the literals before, between and after the placeholders, one more than placeholders
+   * @param slots the slot of each placeholder, an index into the names
+   * @param defaults the default value of each placeholder, null if it has none
+   * @return the template, never null
+   * @throws IllegalArgumentException if the parts do not fit together
+   */
+  public static NamedTemplate precompiled(final String text, final String[] names, final String[] literals,
+                                          final int[] slots, final String[] defaults)
+  {
+    return precompiled(text, names, literals, slots, defaults, new String[slots.length]);
+  }
+
+  /**
+   * Creates a template with typed placeholders from parts that have been determined beforehand, the typed
+   * placeholders are formatted in the default locale.
+   *
+   * @param text the text the parts have been taken from, must not be null
+   * @param names the distinct placeholder names in the order of their slots
+   * @param literals the literals before, between and after the placeholders, one more than placeholders
+   * @param slots the slot of each placeholder, an index into the names
+   * @param defaults the default value of each placeholder, null if it has none
+   * @param specs the type and style of each placeholder as given after its name, e.g. "number,#.##", null if it is
+   *          not typed
+   * @return the template, never null
+   * @throws IllegalArgumentException if the parts do not fit together or the type of a placeholder is invalid
+   */
+  public static NamedTemplate precompiled(final String text, final String[] names, final String[] literals,
+                                          final int[] slots, final String[] defaults, final String[] specs)
+  {
+    Objects.requireNonNull(text, "text");
+    if (literals.length != slots.length + 1 || defaults.length != slots.length || specs.length != slots.length) {
+      throw new IllegalArgumentException("Expected " + (slots.length + 1) + " literals, " + slots.length
+          + " defaults and " + slots.length + " types for " + slots.length + " placeholders");
+    }
+    for (int slot : slots) {
+      if (slot < 0 || slot >= names.length) {
+        throw new IllegalArgumentException("Slot " + slot + " is not one of " + names.length + " names");
+      }
+    }
+    return new NamedTemplate(text, names, literals, slots, defaults, specs, Locale.getDefault(Locale.Category.FORMAT));
+  }
+
+  /** @return the text this template has been compiled from */
+  public String getText() {
+    return text;
+  }
+
+  /** @return the distinct placeholder names in the order of their slots */
+  public List<String> getNames() {
+    return nameList;
+  }
+
+  /**
+   * Determines the slot of a placeholder name.
+   *
+   * @param name the name of a placeholder, e.g. "name" for "${name}"
+   * @return the slot of the name, -1 if the text has no such placeholder
+   */
+  public int indexOf(final String name) {
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].equals(name)) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Derives a template that escapes the values of all placeholders.
+   *
+   * @param escaping the escaping of all values, null to not escape any value
+   * @return a template with the same text and the given escaping
+   */
+  public NamedTemplate escape(final Escaping escaping) {
+    if (escaping == null) return new NamedTemplate(this, null);
+
+    Escaping[] all = new Escaping[names.length];
+    Arrays.fill(all, escaping);
+    return new NamedTemplate(this, all);
+  }
+
+  /**
+   * Derives a template that escapes the value of a single placeholder, keeping the escaping of all others.
+   *
+   * @param name the name of a placeholder, e.g. "name" for "${name}"
+   * @param escaping the escaping of the value, null to not escape it
+   * @return a template with the same text and the given escaping
+   * @throws IllegalArgumentException if the text has no such placeholder
+   */
+  public NamedTemplate escape(final String name, final Escaping escaping) {
+    int slot = indexOf(name);
+    if (slot < 0) throw new IllegalArgumentException("Text has no placeholder ${" + name + "}");
+
+    Escaping[] some = (escapings == null) ? new Escaping[names.length] : escapings.clone();
+    some[slot] = escaping;
+    return new NamedTemplate(this, some);
+  }
+
+  /**
+   * @param name the name of a placeholder, e.g. "name" for "${name}"
+   * @return the escaping of its value, null if it is not escaped
+   */
+  public Escaping getEscaping(final String name) {
+    int slot = indexOf(name);
+    return (slot < 0 || escapings == null) ? null : escapings[slot];
+  }
+
+  /**
+   * Renders the text with the given values.
+   *
+   * @param values the value of each slot in the order of {@link #getNames()}, missing or null values are regarded
+   *          as not set
+   * @return the text with all placeholders resolved
+   */
+  public String render(final Object... values) {
+    return StringBuilderPool.toString(renderTo(StringBuilderPool.acquire(capacity()), values));
+  }
+
+  /**
+   * Renders the text with the values given by a binder, which is called once per placeholder name.
+   *
+   * @param binder determines the value of a placeholder name, may return null if there is no value
+   * @return the text with all placeholders resolved
+   */
+  public String render(final Function<? super String, ?> binder) {
+    StringBuilder output = StringBuilderPool.acquire(capacity());
+    try {
+      return StringBuilderPool.toString(stream(output, bind(binder), binder, null));
+    } catch (IOException e) {
+      throw new IllegalStateException("A StringBuilder does not fail", e);
+    }
+  }
+
+  /**
+   * Renders the text with the given values.
+   *
+   * @param values the values by placeholder name
+   * @return the text with all placeholders resolved
+   */
+  public String render(final Map<String, ?> values) {
+    return render(values::get);
+  }
+
+  /**
+   * Renders the text with the given values and appends it to the given builder.
+   *
+   * @param output the builder to append the text to, must not be null
+   * @param values the value of each slot in the order of {@link #getNames()}
+   * @return the given builder
+   */
+  public StringBuilder renderTo(final StringBuilder output, final Object... values) {
+    try {
+      return stream(output, values, null, null);
+    } catch (IOException e) {
+      throw new IllegalStateException("A StringBuilder does not fail", e);
+    }
+  }
+
+  /**
+   * Streams the text with the given values to an appendable, e.g. a {@link Writer}.
+   *
+   * Literals and values are appended one after the other, so the text is never held in memory as a whole. Values
+   * that are character sequences are appended as they are, and copied in chunks to a <code>Writer</code>.
+   *
+   * @param <A> the type of the appendable
+   * @param output the appendable to stream the text to, must not be null
+   * @param values the value of each slot in the order of {@link #getNames()}
+   * @return the given appendable
+   * @throws IOException if the appendable fails
+   */
+  public <A extends Appendable> A renderTo(final A output, final Object... values)
+    throws IOException
+  {
+    return stream(output, values, null, null);
+  }
+
+  /**
+   * Streams the text with the values given by a binder to an appendable, e.g. a {@link Writer}.
+   *
+   * @param <A> the type of the appendable
+   * @param output the appendable to stream the text to, must not be null
+   * @param binder determines the value of a placeholder name, may return null if there is no value
+   * @return the given appendable
+   * @throws IOException if the appendable fails
+   * @see #renderTo(Appendable, Object...)
+   */
+  public <A extends Appendable> A renderTo(final A output, final Function<? super String, ?> binder)
+    throws IOException
+  {
+    return stream(output, bind(binder), binder, null);
+  }
+
+  /**
+   * Determines the number of bytes of the text rendered as UTF-8 with the given values.
+   *
+   * @param values the value of each slot in the order of {@link #getNames()}
+   * @return the exact number of bytes written by {@link #renderTo(ByteBuffer, Object...)}
+   */
+  public long encodedLength(final Object... values) {
+    return length(values, null);
+  }
+
+  /**
+   * Determines the number of bytes of the text rendered as UTF-8 with the values given by a binder.
+   *
+   * @param binder determines the value of a placeholder name, may return null if there is no value
+   * @return the exact number of bytes written by {@link #renderTo(ByteBuffer, Function)}
+   */
+  public long encodedLength(final Function<? super String, ?> binder) {
+    return length(bind(binder), binder);
+  }
+
+  /**
+   * Renders the text with the given values as UTF-8 into a heap or direct buffer.
+   *
+   * Unpaired surrogates are encoded as <code>?</code> like {@link String#getBytes(java.nio.charset.Charset)} does.
+   * The buffer is left untouched if the text does not fit into its remaining bytes.
+   *
+   * @param buffer the buffer to put the text into, must not be null
+   * @param values the value of each slot in the order of {@link #getNames()}
+   * @return the given buffer, positioned after the text
+   * @throws BufferOverflowException if the buffer has less remaining bytes than {@link #encodedLength(Object...)}
+   */
+  public ByteBuffer renderTo(final ByteBuffer buffer, final Object... values) {
+    return encode(buffer, values, null);
+  }
+
+  /**
+   * Renders the text with the values given by a binder as UTF-8 into a heap or direct buffer.
+   *
+   * @param buffer the buffer to put the text into, must not be null
+   * @param binder determines the value of a placeholder name, may return null if there is no value
+   * @return the given buffer, positioned after the text
+   * @throws BufferOverflowException if the buffer has less remaining bytes than {@link #encodedLength(Function)}
+   * @see #renderTo(ByteBuffer, Object...)
+   */
+  public ByteBuffer renderTo(final ByteBuffer buffer, final Function<? super String, ?> binder) {
+    return encode(buffer, bind(binder), binder);
+  }
+
+  /**
+   * Streams the text with the given values as UTF-8 to a channel.
+   *
+   * The values are encoded into a small buffer that is written whenever it is full, while larger literals are
+   * written as they are, so the text is never held in memory as a whole.
+   *
+   * @param <C> the type of the channel
+   * @param channel the channel to write the text to, must not be null
+   * @param values the value of each slot in the order of {@link #getNames()}
+   * @return the given channel
+   * @throws IOException if the channel fails
+   */
+  public <C extends WritableByteChannel> C renderTo(final C channel, final Object... values)
+    throws IOException
+  {
+    return encode(channel, values, null);
+  }
+
+  /**
+   * Streams the text with the values given by a binder as UTF-8 to a channel.
+   *
+   * @param <C> the type of the channel
+   * @param channel the channel to write the text to, must not be null
+   * @param binder determines the value of a placeholder name, may return null if there is no value
+   * @return the given channel
+   * @throws IOException if the channel fails
+   * @see #renderTo(WritableByteChannel, Object...)
+   */
+  public <C extends WritableByteChannel> C renderTo(final C channel, final Function<? super String, ?> binder)
+    throws IOException
+  {
+    return encode(channel, bind(binder), binder);
+  }
+
+  /**
+   * Renders the text into a builder without creating any temporary objects, for callers that render over and over
+   * again.
+   *
+   * @param output the builder to append the text to
+   * @param values the value of each slot
+   * @param binder the binder the values have been taken from, null if they were given as array
+   * @param buffer the array to convert the values into, at least as long as the number of names
+   * @return the given builder
+   */
+  StringBuilder renderTo(final StringBuilder output, final Object[] values, final Function<? super String, ?> binder,
+                         final CharSequence[] buffer)
+  {
+    try {
+      return stream(output, values, binder, buffer);
+    } catch (IOException e) {
+      throw new IllegalStateException("A StringBuilder does not fail", e);
+    }
+  }
+
+  /** @return the text of this template */
+  @Override
+  public String toString() {
+    return text;
+  }
+
+  /**
+   * Streams the text with the given values.
+   *
+   * @param <A> the type of the appendable
+   * @param output the appendable to stream the text to
+   * @param values the value of each slot
+   * @param binder the binder the values have been taken from, null if they were given as array
+   * @param buffer the array to convert the values into, null to create a new one
+   * @return the given appendable
+   * @throws IOException if the appendable fails
+   */
+  private <A extends Appendable> A stream(final A output, final Object[] values,
+                                          final Function<? super String, ?> binder, final CharSequence[] buffer)
+    throws IOException
+  {
+    CharSequence[] strings = strings(values, buffer);
+    if (strings == null) {
+      write(output, substitute(values, binder));
+      return output;
+    }
+
+    write(output, literals[0]);
+    for (int i = 0; i < slots.length; i++) {
+      int slot = slots[i];
+      CharSequence value = value(i, strings, values);
+      if (value == null) {
+        write(output, (defaults[i] != null) ? defaults[i] : placeholders[i]);
+      } else if (escapings != null && escapings[slot] != null) {
+        escapings[slot].write(value, output);
+      } else {
+        write(output, value);
+      }
+      write(output, literals[i + 1]);
+    }
+    return output;
+  }
+
+  /**
+   * Determines the number of UTF-8 bytes of the text with the given values.
+   *
+   * @param values the value of each slot
+   * @param binder the binder the values have been taken from, null if they were given as array
+   * @return the number of bytes
+   */
+  private long length(final Object[] values, final Function<? super String, ?> binder) {
+    CharSequence[] texts = texts(values);
+    return (texts == null) ? Utf8.length(substitute(values, binder)) : length(texts);
+  }
+
+  /**
+   * @param texts the text of each placeholder
+   * @return the number of UTF-8 bytes of the literals and the given texts
+   */
+  private long length(final CharSequence[] texts) {
+    Encoded bytes = encoded();
+    long length = bytes.literalLength;
+    for (int i = 0; i < slots.length; i++) {
+      CharSequence value = texts[i];
+      length += (value != null) ? Utf8.length(value) : bytes.value(i).length;
+    }
+    return length;
+  }
+
+  /**
+   * Puts the text with the given values as UTF-8 into a buffer.
+   *
+   * @param buffer the buffer to put the text into
+   * @param values the value of each slot
+   * @param binder the binder the values have been taken from, null if they were given as array
+   * @return the given buffer
+   */
+  private ByteBuffer encode(final ByteBuffer buffer, final Object[] values, final Function<? super String, ?> binder) {
+    CharSequence[] texts = texts(values);
+    try {
+      if (texts == null) {
+        byte[] bytes = substitute(values, binder).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buffer.remaining()) throw new BufferOverflowException();
+        return buffer.put(bytes);
+      }
+
+      if (length(texts) > buffer.remaining()) throw new BufferOverflowException();
+      encode(buffer, null, texts);
+      return buffer;
+    } catch (IOException e) {
+      throw new IllegalStateException("A ByteBuffer does not fail", e);
+    }
+  }
+
+  /**
+   * Streams the text with the given values as UTF-8 to a channel.
+   *
+   * @param <C> the type of the channel
+   * @param channel the channel to write the text to
+   * @param values the value of each slot
+   * @param binder the binder the values have been taken from, null if they were given as array
+   * @return the given channel
+   * @throws IOException if the channel fails
+   */
+  private <C extends WritableByteChannel> C encode(final C channel, final Object[] values,
+                                                   final Function<? super String, ?> binder)
+    throws IOException
+  {
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    CharSequence[] texts = texts(values);
+    if (texts == null) {
+      Utf8.encode(substitute(values, binder), buffer, channel);
+    } else {
+      encode(buffer, channel, texts);
+    }
+    Utf8.flush(buffer, channel);
+    return channel;
+  }
+
+  /**
+   * Encodes the literals and the given texts one after the other.
+   *
+   * @param buffer the buffer to put the bytes into
+   * @param channel the channel to write a full buffer to, null if the buffer is known to be large enough
+   * @param texts the text of each placeholder
+   * @throws IOException if the channel fails
+   */
+  private void encode(final ByteBuffer buffer, final WritableByteChannel channel, final CharSequence[] texts)
+    throws IOException
+  {
+    Encoded bytes = encoded();
+    Utf8.put(bytes.literals[0], buffer, channel);
+    for (int i = 0; i < slots.length; i++) {
+      CharSequence value = texts[i];
+      if (value != null) {
+        Utf8.encode(value, buffer, channel);
+      } else {
+        Utf8.put(bytes.value(i), buffer, channel);
+      }
+      Utf8.put(bytes.literals[i + 1], buffer, channel);
+    }
+  }
+
+  /** @return the encoded parts of the text, which are encoded on first use */
+  private Encoded encoded() {
+    Encoded bytes = encoded;
+    if (bytes == null) {
+      // racing threads encode the same bytes, so either result will do
+      bytes = new Encoded(literals, defaults, placeholders);
+      encoded = bytes;
+    }
+    return bytes;
+  }
+
+  /**
+   * Asks the binder for the value of each slot.
+   *
+   * @param binder determines the value of a placeholder name
+   * @return the value of each slot
+   */
+  private Object[] bind(final Function<? super String, ?> binder) {
+    Object[] values = new Object[names.length];
+    for (int i = 0; i < names.length; i++) {
+      values[i] = binder.apply(names[i]);
+    }
+    return values;
+  }
+
+  /** @return the estimated length of a rendered text */
+  private int capacity() {
+    return literalLength + VALUE_LENGTH * slots.length;
+  }
+
+  /**
+   * Converts the values into strings as <code>StrSubstitutor</code> does, character sequences are taken as they are.
+   *
+   * @param values the value of each slot
+   * @param buffer the array to convert the values into, null or too short to create a new one
+   * @return the string of each slot, null if the text has to be substituted by <code>StrSubstitutor</code>
+   */
+  private CharSequence[] strings(final Object[] values, final CharSequence[] buffer) {
+    if (!plain) return null;
+
+    CharSequence[] strings = buffer;
+    if (strings == null || strings.length < names.length) strings = new CharSequence[names.length];
+    for (int i = 0; i < names.length; i++) {
+      Object value = (values != null && i < values.length) ? values[i] : null;
+      strings[i] = (value == null || value instanceof CharSequence) ? (CharSequence) value : value.toString();
+      if (!isInert(strings[i]) && escaping(i) == null) return null;
+    }
+    return strings;
+  }
+
+  /**
+   * Determines the formatted and escaped text of each placeholder, for output that cannot be escaped while it is
+   * written.
+   *
+   * @param values the value of each slot
+   * @return the text of each placeholder, null if there is no value, or null if the text has to be substituted by
+   *         <code>StrSubstitutor</code>
+   */
+  private CharSequence[] texts(final Object[] values) {
+    CharSequence[] strings = strings(values, null);
+    if (strings == null) return null;
+
+    CharSequence[] texts = new CharSequence[slots.length];
+    for (int i = 0; i < slots.length; i++) {
+      CharSequence value = value(i, strings, values);
+      Escaping escaping = escaping(slots[i]);
+      texts[i] = (value == null || escaping == null) ? value : escaping.escape(value);
+    }
+    return texts;
+  }
+
+  /**
+   * @param placeholder the index of a placeholder
+   * @param strings the string of each slot
+   * @param values the value of each slot
+   * @return the string or formatted value of the placeholder, null if there is no value
+   */
+  private CharSequence value(final int placeholder, final CharSequence[] strings, final Object[] values) {
+    int slot = slots[placeholder];
+    if (formats == null || formats[placeholder] == null) return strings[slot];
+
+    Object value = (values != null && slot < values.length) ? values[slot] : null;
+    return (value == null) ? null : formats[placeholder].format(value);
+  }
+
+  /**
+   * @param slot a slot
+   * @return the escaping of the slot, null if it is not escaped
+   */
+  private Escaping escaping(final int slot) {
+    return (escapings == null) ? null : escapings[slot];
+  }
+
+  /**
+   * Substitutes the text by <code>StrSubstitutor</code>, for values that are to be substituted themselves.
+   *
+   * @param values the value of each slot
+   * @param binder the binder the values have been taken from, null if they were given as array
+   * @return the text with all placeholders resolved
+   */
+  private String substitute(final Object[] values, final Function<? super String, ?> binder) {
+    final List<String> escaped = new ArrayList<String>();
+    String substituted = new StrSubstitutor(new StrLookup<Object>() {
+      @Override
+      public String lookup(final String key) {
+        return resolve(key, values, binder, escaped);
+      }
+    }).replace(text);
+    return escaped.isEmpty() ? substituted : restore(substituted, escaped);
+  }
+
+  /**
+   * @param spec the type and style of a placeholder
+   * @param locale the locale to format with
+   * @return the compiled format, null if the type is not known or the pattern is invalid
+   */
+  private static TypedFormat format(final String spec, final Locale locale) {
+    try {
+      return TypedFormat.compile(spec, locale);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Replaces the marks of escaped values by the values themselves.
+   *
+   * @param substituted the text substituted by <code>StrSubstitutor</code>
+   * @param escaped the escaped values in the order of their marks
+   * @return the text with all escaped values
+   */
+  private static String restore(final String substituted, final List<String> escaped) {
+    StringBuilder output = new StringBuilder(substituted.length() + VALUE_LENGTH * escaped.size());
+    int index = 0;
+    for (int start = substituted.indexOf(MARK); start >= 0; start = substituted.indexOf(MARK, index)) {
+      int end = substituted.indexOf(MARK, start + 1);
+      String value = escaped.get(Integer.parseInt(substituted.substring(start + 1, end)));
+      output.append(substituted, index, start).append(value);
+      index = end + 1;
+    }
+    return output.append(substituted, index, substituted.length()).toString();
+  }
+
+  /**
+   * Looks up a variable for <code>StrSubstitutor</code>, the value is formatted and escaped as its placeholder.
+   *
+   * @param key the variable, including the type and style of a typed placeholder
+   * @param values the value of each slot
+   * @param binder the binder the values have been taken from, null if they were given as array
+   * @param escaped the escaped values that are kept from <code>StrSubstitutor</code>
+   * @return the value of the variable, null if there is none
+   */
+  private String resolve(final String key, final Object[] values, final Function<? super String, ?> binder,
+                         final List<String> escaped)
+  {
+    String name = key;
+    TypedFormat format = null;
+    for (int i = 0; formats != null && i < formats.length && format == null; i++) {
+      if (formats[i] != null && key.equals(names[slots[i]] + ',' + formats[i].getSpec())) {
+        name = names[slots[i]];
+        format = formats[i];
+      }
+    }
+
+    int slot = indexOf(name);
+    Object value;
+    if (binder != null) {
+      value = binder.apply(name);
+    } else {
+      value = (slot >= 0 && values != null && slot < values.length) ? values[slot] : null;
+    }
+    if (value == null) return null;
+
+    CharSequence string = (format != null) ? format.format(value) : value.toString();
+    Escaping escaping = (slot < 0) ? null : escaping(slot);
+    if (escaping == null) return string.toString();
+
+    // an escaped value is taken literally, so it must neither contain a placeholder nor escape the next one
+    String literal = escaping.escape(string).toString();
+    if (literal.indexOf(ESCAPE) < 0) return literal;
+    escaped.add(literal);
+    return MARK + Integer.toString(escaped.size() - 1) + MARK;
+  }
+
+  /**
+   * Appends a text to an appendable, without creating a string of a character sequence for a <code>Writer</code>.
+   *
+   * @param output the appendable to append the text to
+   * @param text the text to append
+   * @throws IOException if the appendable fails
+   */
+  private static void write(final Appendable output, final CharSequence text)
+    throws IOException
+  {
+    if (!(output instanceof Writer)) {
+      output.append(text);
+    } else if (text instanceof String) {
+      ((Writer) output).write((String) text);
+    } else {
+      Writer writer = (Writer) output;
+      char[] chunk = new char[Math.min(text.length(), CHUNK_SIZE)];
+      for (int start = 0; start < text.length(); start += chunk.length) {
+        int length = Math.min(chunk.length, text.length() - start);
+        for (int i = 0; i < length; i++) {
+          chunk[i] = text.charAt(start + i);
+        }
+        writer.write(chunk, 0, length);
+      }
+    }
+  }
+
+  /**
+   * @param value a value or default, can be null
+   * @return true if the value is inserted as is, i.e. it neither contains a placeholder nor could it escape one
+   */
+  private static boolean isInert(final CharSequence value) {
+    if (value == null) return true;
+
+    int length = value.length();
+    if (length > 0 && value.charAt(length - 1) == ESCAPE) return false;
+    if (value instanceof String) return ((String) value).indexOf(PREFIX) < 0;
+
+    for (int i = 0; i < length - 1; i++) {
+      if (value.charAt(i) == ESCAPE && value.charAt(i + 1) == PREFIX.charAt(1)) return false;
+    }
+    return true;
+  }
+
+  /** The UTF-8 encoded literals, defaults and placeholders of a template. */
+  private static final class Encoded
+  {
+    private final byte[][] literals;
+    private final byte[][] defaults;
+    private final byte[][] placeholders;
+    private final long literalLength;
+
+    /**
+     * @param literals the literals before, between and after the placeholders
+     * @param defaults the default value of each placeholder, null if it has none
+     * @param placeholders the text of each placeholder
+     */
+    Encoded(final String[] literals, final String[] defaults, final String[] placeholders) {
+      this.literals = encode(literals);
+      this.defaults = encode(defaults);
+      this.placeholders = encode(placeholders);
+      long length = 0;
+      for (byte[] literal : this.literals) {
+        length += literal.length;
+      }
+      this.literalLength = length;
+    }
+
+    /**
+     * @param index the index of a placeholder
+     * @return the bytes inserted for the placeholder if there is no value
+     */
+    byte[] value(final int index) {
+      return (defaults[index] != null) ? defaults[index] : placeholders[index];
+    }
+
+    /**
+     * @param texts the texts to encode, may contain null
+     * @return the encoded texts
+     */
+    private static byte[][] encode(final String[] texts) {
+      byte[][] bytes = new byte[texts.length][];
+      for (int i = 0; i < texts.length; i++) {
+        if (texts[i] != null) bytes[i] = texts[i].getBytes(StandardCharsets.UTF_8);
+      }
+      return bytes;
+    }
+  }
+}
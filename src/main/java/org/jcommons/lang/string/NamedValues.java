@@ -0,0 +1,99 @@
+package org.jcommons.lang.string;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Compact map of placeholder names to values, backed by two arrays with open addressing.
+ *
+ * Named texts hardly ever have more than a handful of placeholders, so a linearly probed array fits into a few cache
+ * lines and neither creates an entry per value nor a new table when it is cleared. Null names are not supported.
+ *
+ * @author Thorsten Goeckeler
+ */
+final class NamedValues
+  implements Function<String, Object>
+{
+  /** initial number of slots, enough for 8 values */
+  private static final int CAPACITY = 16;
+
+  private String[] names = new String[CAPACITY];
+  private Object[] values = new Object[CAPACITY];
+  private int size;
+
+  /**
+   * @param name the name of a placeholder
+   * @return the value of the placeholder, null if it has none
+   */
+  Object get(final String name) {
+    int mask = names.length - 1;
+    for (int i = hash(name) & mask;; i = (i + 1) & mask) {
+      String key = names[i];
+      if (key == null) return null;
+      if (key == name || key.equals(name)) return values[i];
+    }
+  }
+
+  /**
+   * Sets the value of a placeholder, replacing any previous value.
+   *
+   * @param name the name of a placeholder, must not be null
+   * @param value the value of the placeholder
+   */
+  void put(final String name, final Object value) {
+    int mask = names.length - 1;
+    int i = hash(name) & mask;
+    while (names[i] != null) {
+      if (names[i] == name || names[i].equals(name)) {
+        values[i] = value;
+        return;
+      }
+      i = (i + 1) & mask;
+    }
+
+    names[i] = name;
+    values[i] = value;
+    // keep at least half of the slots free, so probing stays short
+    if (++size > names.length / 2) resize();
+  }
+
+  /** Removes all values, keeping the arrays. */
+  void clear() {
+    if (size == 0) return;
+    Arrays.fill(names, null);
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  /** @return the number of placeholders with a value */
+  int size() {
+    return size;
+  }
+
+  /** @see #get(String) */
+  @Override
+  public Object apply(final String name) {
+    return get(name);
+  }
+
+  /** Doubles the number of slots. */
+  private void resize() {
+    String[] oldNames = names;
+    Object[] oldValues = values;
+    names = new String[oldNames.length * 2];
+    values = new Object[oldValues.length * 2];
+    size = 0;
+    for (int i = 0; i < oldNames.length; i++) {
+      if (oldNames[i] != null) put(oldNames[i], oldValues[i]);
+    }
+  }
+
+  /**
+   * @param name the name of a placeholder
+   * @return the spread hash of the name
+   */
+  private static int hash(final String name) {
+    int hash = name.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -0,0 +1,91 @@
+package org.jcommons.lang.string;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free pool of the builders that the string methods of this package render their results into.
+ *
+ * The pool holds a fixed number of builders regardless of the number of threads, so it works for virtual threads as
+ * well, where a builder per thread would be retained by millions of threads. A thread only probes a few slots,
+ * starting at a slot derived from its id, and takes or returns a builder by a single compare-and-set. If no builder
+ * is at hand a new one is created, and if no slot is free a returned builder is simply dropped. Builders that have
+ * grown beyond {@link #MAX_CAPACITY} are dropped as well, so the pool never retains more than
+ * <code>SIZE * MAX_CAPACITY</code> characters.
+ *
+ * <pre>
+ *   return StringBuilderPool.toString(renderTo(StringBuilderPool.acquire(capacity()), values));
+ * </pre>
+ *
+ * A builder must not be used anymore once it is released.
+ *
+ * @author Thorsten Goeckeler
+ */
+final class StringBuilderPool
+{
+  /** number of builders that are retained at most */
+  static final int SIZE = Math.max(8, Math.min(64, 2 * Runtime.getRuntime().availableProcessors()));
+  /** largest capacity of a builder that is retained, larger builders are left to the garbage collector */
+  static final int MAX_CAPACITY = 8192;
+  /** number of slots a thread looks at before it gives up */
+  private static final int PROBES = 4;
+  /** default capacity of a new builder as of <code>StringBuilder</code> */
+  private static final int CAPACITY = 16;
+
+  private static final AtomicReferenceArray<StringBuilder> BUILDERS = new AtomicReferenceArray<StringBuilder>(SIZE);
+
+  /** hide sole constructor */
+  private StringBuilderPool() {
+  }
+
+  /**
+   * Takes an empty builder from the pool, or creates a new one.
+   *
+   * @param capacity the capacity the builder is expected to need
+   * @return an empty builder with at least the given capacity
+   */
+  static StringBuilder acquire(final int capacity) {
+    int start = start();
+    for (int i = 0; i < PROBES; i++) {
+      int slot = (start + i) % SIZE;
+      StringBuilder builder = BUILDERS.get(slot);
+      if (builder != null && BUILDERS.compareAndSet(slot, builder, null)) {
+        builder.ensureCapacity(capacity);
+        return builder;
+      }
+    }
+    return new StringBuilder(Math.max(capacity, CAPACITY));
+  }
+
+  /**
+   * Returns a builder to the pool, unless it has grown too large or the pool is full.
+   *
+   * @param builder the builder that is not used anymore, can be null
+   */
+  static void release(final StringBuilder builder) {
+    if (builder == null || builder.capacity() > MAX_CAPACITY) return;
+
+    builder.setLength(0);
+    int start = start();
+    for (int i = 0; i < PROBES; i++) {
+      int slot = (start + i) % SIZE;
+      if (BUILDERS.get(slot) == null && BUILDERS.compareAndSet(slot, null, builder)) return;
+    }
+  }
+
+  /**
+   * Determines the text of a builder and returns the builder to the pool.
+   *
+   * @param builder the builder that is not used anymore, must not be null
+   * @return the text of the builder
+   */
+  static String toString(final StringBuilder builder) {
+    String text = builder.toString();
+    release(builder);
+    return text;
+  }
+
+  /** @return the first slot the current thread looks at */
+  private static int start() {
+    return Math.floorMod(Thread.currentThread().threadId(), SIZE);
+  }
+}
@@ -9,12 +9,33 @@ import org.jcommons.lang.number.NumberUtils;
  * @author Thorsten Goeckeler
  *
  * @see org.apache.commons.lang.text.StrBuilder
+ * @see ConditionalText
  */
 public final class StringBuilderUtils
   extends org.apache.commons.lang3.text.StrBuilder
 {
   private static final long serialVersionUID = -2371182240527419968L;
 
+  /** largest scale of a fixed-scale decimal, i.e. the number of digits of the largest power of ten of a long */
+  private static final int MAX_SCALE = 18;
+  /** the tens digit of each number from 0 to 99 */
+  private static final char[] DIGIT_TENS = new char[100];
+  /** the ones digit of each number from 0 to 99 */
+  private static final char[] DIGIT_ONES = new char[100];
+  /** the powers of ten up to the largest scale */
+  private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+  static {
+    for (int i = 0; i < 100; i++) {
+      DIGIT_TENS[i] = (char) ('0' + i / 10);
+      DIGIT_ONES[i] = (char) ('0' + i % 10);
+    }
+    POWERS_OF_TEN[0] = 1L;
+    for (int i = 1; i <= MAX_SCALE; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10L;
+    }
+  }
+
   /** hide sole constructor */
   private StringBuilderUtils() {
   }
@@ -51,6 +72,185 @@ public final class StringBuilderUtils
     return text;
   }
 
+  /**
+   * Appends the given value and the optional post- and prefixes if the value is not zero, without boxing the value.
+   *
+   * @param text the string builder to append the value to if the value is non-empty
+   * @param prefix the optional label to append before the value, can be null
+   * @param value the number to print only if it is not zero
+   * @param postfix the optional label to append after the value, can be null
+   * @return the original <code>StringBuilder</code>, only null if no builder was given
+   */
+  public static StringBuilder appendIfNotEmpty(final StringBuilder text, final String prefix, final long value,
+                                               final String postfix)
+  {
+    assert text != null;
+    if (text == null) return null;
+
+    if (value != 0L) {
+      if (prefix != null) text.append(prefix);
+      text.append(value);
+      if (postfix != null) text.append(postfix);
+    }
+
+    return text;
+  }
+
+  /**
+   * Appends the given value and the optional post- and prefixes if the value is not zero, without boxing the value.
+   *
+   * @param text the string builder to append the value to if the value is non-empty
+   * @param prefix the optional label to append before the value, can be null
+   * @param value the number to print only if it is not zero
+   * @param postfix the optional label to append after the value, can be null
+   * @return the original <code>StringBuilder</code>, only null if no builder was given
+   */
+  public static StringBuilder appendIfNotEmpty(final StringBuilder text, final String prefix, final int value,
+                                               final String postfix)
+  {
+    return appendIfNotEmpty(text, prefix, (long) value, postfix);
+  }
+
+  /**
+   * Appends the given value and the optional post- and prefixes if the value is regarded not empty, without boxing
+   * the value.
+   *
+   * As with {@link #appendIfNotEmpty(StringBuilder, String, Number, String)} a value is empty if its integral part is
+   * zero, so please be aware that <code>0.3</code> will not be appended either. Use the fixed-scale variant
+   * {@link #appendIfNotEmpty(StringBuilder, String, long, int, String)} for amounts.
+   *
+   * @param text the string builder to append the value to if the value is non-empty
+   * @param prefix the optional label to append before the value, can be null
+   * @param value the number to print only if its integral part is not zero
+   * @param postfix the optional label to append after the value, can be null
+   * @return the original <code>StringBuilder</code>, only null if no builder was given
+   */
+  public static StringBuilder appendIfNotEmpty(final StringBuilder text, final String prefix, final double value,
+                                               final String postfix)
+  {
+    assert text != null;
+    if (text == null) return null;
+
+    if ((long) value != 0L) {
+      if (prefix != null) text.append(prefix);
+      text.append(value);
+      if (postfix != null) text.append(postfix);
+    }
+
+    return text;
+  }
+
+  /**
+   * Appends the given value and the optional post- and prefixes if the value is regarded not empty, without boxing
+   * the value. The value is printed as float, e.g. <code>1.1</code>, not widened to a double.
+   *
+   * @param text the string builder to append the value to if the value is non-empty
+   * @param prefix the optional label to append before the value, can be null
+   * @param value the number to print only if its integral part is not zero
+   * @param postfix the optional label to append after the value, can be null
+   * @return the original <code>StringBuilder</code>, only null if no builder was given
+   * @see #appendIfNotEmpty(StringBuilder, String, double, String)
+   */
+  public static StringBuilder appendIfNotEmpty(final StringBuilder text, final String prefix, final float value,
+                                               final String postfix)
+  {
+    assert text != null;
+    if (text == null) return null;
+
+    if ((long) value != 0L) {
+      if (prefix != null) text.append(prefix);
+      text.append(value);
+      if (postfix != null) text.append(postfix);
+    }
+
+    return text;
+  }
+
+  /**
+   * Appends the given fixed-scale decimal and the optional post- and prefixes if the decimal is not zero, e.g. an
+   * amount of money given in cents. The digits are written straight into the builder.
+   *
+   * <pre>
+   * StringBuilder text = new StringBuilder(&quot;Filter was :&quot;);
+   * StringBuilderUtils.appendIfNotEmpty(text, &quot; Amount &quot;, amountInCents, 2, &quot; EUR&quot;);
+   * </pre>
+   *
+   * @param text the string builder to append the value to if the value is non-empty
+   * @param prefix the optional label to append before the value, can be null
+   * @param unscaledValue the decimal without decimal point, e.g. <code>-12345</code> for <code>-123.45</code>
+   * @param scale the number of fraction digits from 0 to 18, e.g. <code>2</code> for cents
+   * @param postfix the optional label to append after the value, can be null
+   * @return the original <code>StringBuilder</code>, only null if no builder was given
+   * @throws IllegalArgumentException if the scale is out of range
+   */
+  public static StringBuilder appendIfNotEmpty(final StringBuilder text, final String prefix,
+                                               final long unscaledValue, final int scale, final String postfix)
+  {
+    if (scale < 0 || scale > MAX_SCALE) throw new IllegalArgumentException("Scale " + scale + " is out of range");
+    assert text != null;
+    if (text == null) return null;
+
+    if (unscaledValue != 0L) {
+      if (prefix != null) text.append(prefix);
+      appendDecimal(text, unscaledValue, scale);
+      if (postfix != null) text.append(postfix);
+    }
+
+    return text;
+  }
+
+  /**
+   * Appends the given fixed-scale decimal and the optional post- and prefixes if the decimal is not zero.
+   *
+   * @param text the string builder to append the value to if the value is non-empty
+   * @param prefix the optional label to append before the value, can be null
+   * @param unscaledValue the decimal without decimal point, e.g. <code>-12345</code> for <code>-123.45</code>
+   * @param scale the number of fraction digits from 0 to 18, e.g. <code>2</code> for cents
+   * @param postfix the optional label to append after the value, can be null
+   * @return the original <code>StringBuilder</code>, only null if no builder was given
+   * @throws IllegalArgumentException if the scale is out of range
+   */
+  public static StringBuilder appendIfNotEmpty(final StringBuilder text, final String prefix,
+                                               final int unscaledValue, final int scale, final String postfix)
+  {
+    return appendIfNotEmpty(text, prefix, (long) unscaledValue, scale, postfix);
+  }
+
+  /**
+   * Appends a fixed-scale decimal, the fraction is written two digits at a time.
+   *
+   * @param text the string builder to append the decimal to
+   * @param unscaledValue the decimal without decimal point
+   * @param scale the number of fraction digits
+   */
+  private static void appendDecimal(final StringBuilder text, final long unscaledValue, final int scale) {
+    if (scale == 0) {
+      text.append(unscaledValue);
+      return;
+    }
+
+    // the remainder has the sign of the value, so both parts are negated for negative values
+    long integral = unscaledValue / POWERS_OF_TEN[scale];
+    long fraction = unscaledValue % POWERS_OF_TEN[scale];
+    if (unscaledValue < 0) {
+      text.append('-');
+      integral = -integral;
+      fraction = -fraction;
+    }
+    text.append(integral).append('.');
+
+    int start = text.length();
+    int index = start + scale;
+    text.setLength(index);
+    while (index - start >= 2) {
+      int pair = (int) (fraction % 100);
+      fraction /= 100;
+      text.setCharAt(--index, DIGIT_ONES[pair]);
+      text.setCharAt(--index, DIGIT_TENS[pair]);
+    }
+    if (index > start) text.setCharAt(--index, (char) ('0' + fraction));
+  }
+
   /**
    * Appends the given value and the optional post- and prefixes if the value is regarded not empty.
    *
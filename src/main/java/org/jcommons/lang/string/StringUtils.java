@@ -1,6 +1,7 @@
 package org.jcommons.lang.string;
 
 import java.text.MessageFormat;
+import java.util.Locale;
 
 /**
  * String utilities that build upon {@link org.apache.commons.lang.StringUtils}.
@@ -38,8 +39,9 @@ public final class StringUtils
    * Example: The message text contains the text "Hello {0}!". Then you can call this routine as
    * <code>message("Hello {0}!", String[] { "World" });</code> It will then return "Hello World!".
    *
-   * This is only a convenience function for ad hoc use of the messages. If you need the same message formatted numerous
-   * times, you are better of creating your own MessageFormat and to reuse it all the time.
+   * This is a convenience function for ad hoc use of the messages. The compiled formats are kept in the
+   * {@link MessageFormatCache#global() global cache}, so formatting the same message numerous times costs about the
+   * same as creating your own MessageFormat and reusing it all the time.
    *
    * If the message contains single quotes, make sure to escape them: "''" will lead to "'" within the result. For
    * details refer to {@link MessageFormat}.
@@ -51,8 +53,7 @@ public final class StringUtils
   public static String message(final String message, final Object... parameters) {
     String result = null;
     if (message != null) {
-      MessageFormat format = new MessageFormat(message);
-      result = format.format(parameters);
+      result = MessageFormatCache.global().format(message, Locale.getDefault(Locale.Category.FORMAT), parameters);
     }
     return result;
   }
@@ -63,16 +64,17 @@ public final class StringUtils
    * Example: The message text contains the text "Hello {0}!". Then you can call this routine as
    * <code>message("Hello {0}!", "World");</code> It will then return "Hello World!".
    *
-   * This is only a convenience function for ad hoc use of the messages. If you need the same message formatted numerous
-   * times, you are better of creating your own MessageFormat and to reuse it all the time.
+   * This is a convenience function for ad hoc use of the messages, the compiled formats are cached as with
+   * {@link #message(String, Object...)}.
    *
    * @param message the message text
    * @param parameter the single parameter for this message
    * @return the message with all the parameters set
    */
   public static String message(final String message, final Object parameter) {
-    Object[] args = { parameter };
-    return message(message, args);
+    if (message == null) return null;
+    return MessageFormatCache.global().getTemplate(message, Locale.getDefault(Locale.Category.FORMAT))
+        .format(parameter);
   }
 
   /**
@@ -81,8 +83,8 @@ public final class StringUtils
    * Example: The message text contains the text "{0} {1}!". Then you can call this routine as
    * <code>message("{0} {1}!", "Hello", "World");</code> It will then return "Hello World!".
    *
-   * This is only a convenience function for ad hoc use of the messages. If you need the same message formatted numerous
-   * times, you are better of creating your own MessageFormat and to reuse it all the time.
+   * This is a convenience function for ad hoc use of the messages, the compiled formats are cached as with
+   * {@link #message(String, Object...)}.
    *
    * @param message the message text
    * @param parameter1 The first argument for this message
@@ -90,7 +92,8 @@ public final class StringUtils
    * @return the message with all the parameters set
    */
   public static String message(final String message, final Object parameter1, final Object parameter2) {
-    Object[] args = { parameter1, parameter2 };
-    return message(message, args);
+    if (message == null) return null;
+    return MessageFormatCache.global().getTemplate(message, Locale.getDefault(Locale.Category.FORMAT))
+        .format(parameter1, parameter2);
   }
 }
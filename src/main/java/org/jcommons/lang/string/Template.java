@@ -0,0 +1,36 @@
+package org.jcommons.lang.string;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the text of a method of an interface that renders a {@link NamedTemplate}.
+ *
+ * Each placeholder of the text is bound to the method parameter of the same name. The annotation processor of
+ * <code>jcommons-lang-processor</code> checks the text and the parameters at compile time and generates an
+ * implementation of the interface named <code>&lt;Interface&gt;Renderer</code>, which holds the parsed template, so
+ * rendering neither parses the text nor uses reflection.
+ *
+ * <pre>
+ *   public interface Messages
+ *   {
+ *     &#64;Template("Hello ${name}, welcome to ${city:-Berlin}.")
+ *     String welcome(String name, String city);
+ *   }
+ *
+ *   Messages messages = new MessagesRenderer();
+ * </pre>
+ *
+ * @author Thorsten Goeckeler
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+public @interface Template
+{
+  /** @return the text with placeholders such as <code>${name}</code> */
+  String value();
+}
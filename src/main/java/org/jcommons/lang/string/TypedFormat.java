@@ -0,0 +1,194 @@
+package org.jcommons.lang.string;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.time.temporal.TemporalAccessor;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compiled, thread-safe format of a typed placeholder such as <code>${amount,number,#,##0.00}</code> or
+ * <code>${due,date,dd.MM.yyyy}</code>.
+ *
+ * The types and styles follow {@link java.text.MessageFormat}: <code>number</code> with the styles
+ * <code>integer</code>, <code>percent</code>, <code>currency</code> or a {@link DecimalFormat} pattern, and
+ * <code>date</code> or <code>time</code> with the styles <code>short</code>, <code>medium</code>, <code>long</code>,
+ * <code>full</code> or a {@link DateTimeFormatter} pattern. Number formats are not thread-safe, so a value is formatted
+ * by a copy that is taken from a few retained copies by a single compare-and-set, as by {@link StringBuilderPool},
+ * while date and time formatters are shared.
+ *
+ * @author Thorsten Goeckeler
+ */
+final class TypedFormat
+{
+  private static final String NUMBER = "number";
+  private static final String DATE = "date";
+  private static final String TIME = "time";
+  /** number of copies of a number format that are retained */
+  private static final int COPIES = 4;
+
+  /** the type and style as given within the placeholder */
+  private final String spec;
+  /** the number format that is copied, never used itself, null if this is no number format */
+  private final NumberFormat number;
+  /** the retained copies of the number format that are not in use, null if this is no number format */
+  private final AtomicReferenceArray<NumberFormat> numbers;
+  /** the date or time formatter, null if this is a number format */
+  private final DateTimeFormatter temporals;
+
+  /**
+   * @param spec the type and style as given within the placeholder
+   * @param number the number format to be copied for formatting, null for a date or time format
+   * @param temporal the date or time formatter, null for a number format
+   */
+  private TypedFormat(final String spec, final NumberFormat number, final DateTimeFormatter temporal) {
+    this.spec = spec;
+    this.number = number;
+    this.numbers = (number == null) ? null : new AtomicReferenceArray<NumberFormat>(COPIES);
+    this.temporals = temporal;
+  }
+
+  /**
+   * Compiles the format of a placeholder.
+   *
+   * @param spec the type and optional style, e.g. "number,#,##0.00"
+   * @param locale the locale to format with
+   * @return the compiled format, null if the type is not known
+   * @throws IllegalArgumentException if the pattern is invalid
+   */
+  static TypedFormat compile(final String spec, final Locale locale) {
+    int comma = spec.indexOf(',');
+    String type = ((comma < 0) ? spec : spec.substring(0, comma)).trim();
+    String style = (comma < 0) ? "" : spec.substring(comma + 1).trim();
+
+    if (NUMBER.equals(type)) return new TypedFormat(spec, number(style, locale), null);
+    if (DATE.equals(type)) return new TypedFormat(spec, null, temporal(style, locale, true));
+    if (TIME.equals(type)) return new TypedFormat(spec, null, temporal(style, locale, false));
+    return null;
+  }
+
+  /** @return the type and style as given within the placeholder */
+  String getSpec() {
+    return spec;
+  }
+
+  /**
+   * Formats a value, values of another type are taken as they are, as are dates and times that lack a field of the
+   * format, e.g. a date for a time format or a local time for a format with a time zone.
+   *
+   * @param value the value to format, must not be null
+   * @return the formatted value
+   */
+  CharSequence format(final Object value) {
+    if (number != null && value instanceof Number) {
+      NumberFormat format = acquire();
+      try {
+        return format.format(value);
+      } finally {
+        release(format);
+      }
+    }
+    if (temporals != null) {
+      if (value instanceof TemporalAccessor) {
+        try {
+          return temporals.format((TemporalAccessor) value);
+        } catch (DateTimeException e) {
+          return value.toString();
+        }
+      }
+      if (value instanceof Date) {
+        // java.sql.Date does not support toInstant()
+        Instant instant = Instant.ofEpochMilli(((Date) value).getTime());
+        return temporals.format(ZonedDateTime.ofInstant(instant, ZoneId.systemDefault()));
+      }
+      if (value instanceof Calendar) {
+        Calendar calendar = (Calendar) value;
+        return temporals.format(ZonedDateTime.ofInstant(calendar.toInstant(), calendar.getTimeZone().toZoneId()));
+      }
+    }
+    return (value instanceof CharSequence) ? (CharSequence) value : value.toString();
+  }
+
+  /** @return a copy of the number format that is not used by any other thread */
+  private NumberFormat acquire() {
+    int start = start();
+    for (int i = 0; i < COPIES; i++) {
+      int slot = (start + i) % COPIES;
+      NumberFormat format = numbers.get(slot);
+      if (format != null && numbers.compareAndSet(slot, format, null)) return format;
+    }
+    return (NumberFormat) number.clone();
+  }
+
+  /** @param format the copy of the number format that is not used anymore, dropped if all copies are retained */
+  private void release(final NumberFormat format) {
+    int start = start();
+    for (int i = 0; i < COPIES; i++) {
+      int slot = (start + i) % COPIES;
+      if (numbers.get(slot) == null && numbers.compareAndSet(slot, null, format)) return;
+    }
+  }
+
+  /** @return the first copy the current thread looks at */
+  private static int start() {
+    return Math.floorMod(Thread.currentThread().threadId(), COPIES);
+  }
+
+  /**
+   * @param style the style or pattern of the number
+   * @param locale the locale to format with
+   * @return the number format
+   */
+  private static NumberFormat number(final String style, final Locale locale) {
+    switch (style) {
+      case "":
+        return NumberFormat.getInstance(locale);
+      case "integer":
+        return NumberFormat.getIntegerInstance(locale);
+      case "percent":
+        return NumberFormat.getPercentInstance(locale);
+      case "currency":
+        return NumberFormat.getCurrencyInstance(locale);
+      default:
+        return new DecimalFormat(style, DecimalFormatSymbols.getInstance(locale));
+    }
+  }
+
+  /**
+   * @param style the style or pattern of the date or time
+   * @param locale the locale to format with
+   * @param date true for a date, false for a time
+   * @return the date or time formatter
+   */
+  private static DateTimeFormatter temporal(final String style, final Locale locale, final boolean date) {
+    FormatStyle format;
+    switch (style) {
+      case "short":
+        format = FormatStyle.SHORT;
+        break;
+      case "":
+      case "medium":
+        format = FormatStyle.MEDIUM;
+        break;
+      case "long":
+        format = FormatStyle.LONG;
+        break;
+      case "full":
+        format = FormatStyle.FULL;
+        break;
+      default:
+        return DateTimeFormatter.ofPattern(style, locale);
+    }
+    return (date ? DateTimeFormatter.ofLocalizedDate(format) : DateTimeFormatter.ofLocalizedTime(format))
+        .withLocale(locale);
+  }
+}
@@ -0,0 +1,126 @@
+package org.jcommons.lang.string;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * UTF-8 encoding of character sequences straight into byte buffers.
+ *
+ * The encoding is the same as with {@link String#getBytes(java.nio.charset.Charset)}, i.e. unpaired surrogates are
+ * replaced by <code>?</code>, but neither a byte array nor a string is created for the character sequence.
+ *
+ * @author Thorsten Goeckeler
+ */
+final class Utf8
+{
+  /** maximum number of bytes of a single character or surrogate pair */
+  private static final int MAX_BYTES = 4;
+
+  /** hide sole constructor */
+  private Utf8() {
+  }
+
+  /**
+   * Determines the number of bytes of the encoded text.
+   *
+   * @param text the text to encode
+   * @return the number of bytes
+   */
+  static long length(final CharSequence text) {
+    int chars = text.length();
+    long length = chars;
+    for (int i = 0; i < chars; i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) continue;
+
+      if (c < 0x800) {
+        length += 1;
+      } else if (!Character.isSurrogate(c)) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(text.charAt(i + 1))) {
+        // two chars become four bytes
+        length += 2;
+        i++;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Encodes a text into a buffer, which is written to a channel whenever it is full.
+   *
+   * @param text the text to encode
+   * @param buffer the buffer to encode the text into, at least 4 bytes large
+   * @param channel the channel to write a full buffer to, null if the buffer is known to be large enough
+   * @throws IOException if the channel fails
+   */
+  static void encode(final CharSequence text, final ByteBuffer buffer, final WritableByteChannel channel)
+    throws IOException
+  {
+    int chars = text.length();
+    for (int i = 0; i < chars; i++) {
+      if (channel != null && buffer.remaining() < MAX_BYTES) flush(buffer, channel);
+
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        buffer.put((byte) c);
+      } else if (c < 0x800) {
+        buffer.put((byte) (0xC0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      } else if (!Character.isSurrogate(c)) {
+        buffer.put((byte) (0xE0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      } else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(text.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, text.charAt(++i));
+        buffer.put((byte) (0xF0 | (codePoint >> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+      } else {
+        buffer.put((byte) '?');
+      }
+    }
+  }
+
+  /**
+   * Puts bytes into a buffer, which is written to a channel if the bytes do not fit.
+   *
+   * @param bytes the bytes to put
+   * @param buffer the buffer to put the bytes into
+   * @param channel the channel to write to, null if the buffer is known to be large enough
+   * @throws IOException if the channel fails
+   */
+  static void put(final byte[] bytes, final ByteBuffer buffer, final WritableByteChannel channel)
+    throws IOException
+  {
+    if (channel == null || bytes.length <= buffer.remaining()) {
+      buffer.put(bytes);
+    } else {
+      // large bytes are written as they are instead of being copied
+      flush(buffer, channel);
+      ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+      while (wrapped.hasRemaining()) {
+        channel.write(wrapped);
+      }
+    }
+  }
+
+  /**
+   * Writes the content of a buffer to a channel and clears the buffer.
+   *
+   * @param buffer the buffer to write
+   * @param channel the channel to write to
+   * @throws IOException if the channel fails
+   */
+  static void flush(final ByteBuffer buffer, final WritableByteChannel channel)
+    throws IOException
+  {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
@@ -0,0 +1,129 @@
+package org.jcommons.lang.time;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Sliding window that moves years without century into the century around the current year.
+ *
+ * The window spans 100 years and ends the given number of years after the current year, so a two-digit year is moved
+ * into the last century if it would otherwise be too far in the future. Other than the window of
+ * <code>SimpleDateFormat</code> it never reaches into the next century, it rather ends with the current century once
+ * the current year is close enough to its end: with {@value #YEARS_AHEAD} years ahead and a current year of 2080 the
+ * year 5 is moved to 2005. So {@link #system()} windows years just like
+ * {@link DateUtils#toCurrentCentury(java.util.Date)} does. The current year is taken from a {@link Clock} and cached
+ * until the year rolls over, so each call only reads the clock and windows the year with integer arithmetic.
+ *
+ * <pre>
+ *   CenturyWindow window = new CenturyWindow(Clock.fixed(Instant.parse("2026-06-01T00:00:00Z"), ZoneOffset.UTC));
+ *   window.toCurrentCentury(51); // 2051
+ *   window.toCurrentCentury(52); // 1952
+ * </pre>
+ *
+ * @author Thorsten Goeckeler
+ */
+public final class CenturyWindow
+{
+  /** years a two-digit year may be ahead of the current year with {@link DateUtils#toCurrentCentury(int)} */
+  public static final int YEARS_AHEAD = 25;
+
+  /** the window as used by {@link DateUtils} for the system clock */
+  private static final CenturyWindow SYSTEM = new CenturyWindow(Clock.systemDefaultZone());
+
+  private final Clock clock;
+  private final int yearsAhead;
+  /** the window as of the current year, replaced once the year rolls over */
+  private volatile Pivot pivot;
+
+  /**
+   * Creates a window that ends {@value #YEARS_AHEAD} years after the current year.
+   *
+   * @param clock the clock to take the current year from, must not be null
+   */
+  public CenturyWindow(final Clock clock) {
+    this(clock, YEARS_AHEAD);
+  }
+
+  /**
+   * Creates a window that ends the given number of years after the current year.
+   *
+   * @param clock the clock to take the current year from, must not be null
+   * @param yearsAhead the number of years a two-digit year may be ahead of the current year, 0 to 99
+   */
+  public CenturyWindow(final Clock clock, final int yearsAhead) {
+    if (yearsAhead < 0 || yearsAhead > 99) {
+      throw new IllegalArgumentException("Years ahead must be between 0 and 99, but are " + yearsAhead);
+    }
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.yearsAhead = yearsAhead;
+    this.pivot = new Pivot(clock, yearsAhead);
+  }
+
+  /** @return the window for the system clock as used by {@link DateUtils} */
+  public static CenturyWindow system() {
+    return SYSTEM;
+  }
+
+  /** @return the clock the current year is taken from */
+  public Clock getClock() {
+    return clock;
+  }
+
+  /** @return the current year according to the clock */
+  public int getCurrentYear() {
+    return pivot().year;
+  }
+
+  /** @return the first year of the window, years without century are moved to this year or later */
+  public int getStartYear() {
+    Pivot current = pivot();
+    return current.century + current.startYear;
+  }
+
+  /**
+   * Moves a year into the window if the century is amiss, i.e. if it is below 100.
+   *
+   * @param year the year to move
+   * @return the year within the window, or the year as is if it has a century or is negative
+   */
+  public int toCurrentCentury(final int year) {
+    if (year < 0 || year >= 100) return year;
+
+    Pivot current = pivot();
+    return current.century + year + (year < current.startYear ? 100 : 0);
+  }
+
+  /** @return the window as of the current year, refreshed once the year rolls over */
+  private Pivot pivot() {
+    Pivot current = pivot;
+    if (clock.millis() >= current.expires) {
+      current = new Pivot(clock, yearsAhead);
+      pivot = current;
+    }
+    return current;
+  }
+
+  /** The start of the window as of a given year. */
+  private static final class Pivot
+  {
+    private final int year;
+    private final int century;
+    private final int startYear;
+    private final long expires;
+
+    /**
+     * @param clock the clock to take the current year from
+     * @param yearsAhead the number of years the window ends after the current year
+     */
+    private Pivot(final Clock clock, final int yearsAhead) {
+      LocalDate today = LocalDate.now(clock);
+      // the window ends with the current century at the latest
+      int start = Math.min(today.getYear() + yearsAhead - 99, today.getYear() - Math.floorMod(today.getYear(), 100));
+      this.year = today.getYear();
+      this.century = Math.floorDiv(start, 100) * 100;
+      this.startYear = Math.floorMod(start, 100);
+      this.expires = LocalDate.of(year + 1, 1, 1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package org.jcommons.lang.time;
+
+import java.util.Date;
+
+import org.jcommons.lang.cache.BoundedCache;
+
+/**
+ * Optional, size-bounded cache in front of {@link DateUtils#toDay(String)} and {@link DateUtils#toTime(String)}.
+ *
+ * Feeds such as logs tend to repeat the same date strings over and over again, and each of them would otherwise go
+ * through all formats until one matches. The cache remembers the result for each date string, including the strings
+ * that are no date at all, and evicts the least recently used ones once it is full, see {@link BoundedCache}.
+ *
+ * <pre>
+ *   DateCache cache = new DateCache(10000);
+ *   Date date = cache.toTime("15.03.2010 14:15:45");
+ * </pre>
+ *
+ * The cache holds immutable epoch milliseconds and returns a new {@link Date} on each call, so callers cannot
+ * corrupt the cached values. As with <code>DateUtils</code> the results depend on the default locale and time zone
+ * at the time a string is parsed first, so the cache has to be cleared if they change. All methods are thread-safe.
+ *
+ * @author Thorsten Goeckeler
+ */
+public final class DateCache
+{
+  /** estimated bytes of a cached string, excluding its characters, and of the boxed milliseconds */
+  private static final long STRING_BYTES = 40L;
+  private static final long VALUE_BYTES = 16L;
+
+  private final BoundedCache<String, Long> days;
+  private final BoundedCache<String, Long> times;
+
+  /**
+   * Creates a cache for days and timestamps.
+   *
+   * @param capacity the maximum number of days and of timestamps to be cached each, at least 1
+   */
+  public DateCache(final int capacity) {
+    this.days = new BoundedCache<String, Long>(capacity, DateCache::weigh);
+    this.times = new BoundedCache<String, Long>(capacity, DateCache::weigh);
+  }
+
+  /**
+   * Interprets a given string as a day like {@link DateUtils#toDay(String)}, using the cached result if possible.
+   *
+   * @param dateString a formatted date string
+   * @return null if the date couldn't be parsed, otherwise a new date
+   */
+  public Date toDay(final String dateString) {
+    if (dateString == null) return null;
+    return toDate(days.get(dateString, text -> toMillis(DateUtils.toDay(text))));
+  }
+
+  /**
+   * Interprets a given string as a timestamp like {@link DateUtils#toTime(String)}, using the cached result if
+   * possible.
+   *
+   * @param dateString a formatted date string
+   * @return null if the date couldn't be parsed, otherwise a new date with time details
+   */
+  public Date toTime(final String dateString) {
+    if (dateString == null) return null;
+    return toDate(times.get(dateString, text -> toMillis(DateUtils.toTime(text))));
+  }
+
+  /** @return the number of cached days and timestamps */
+  public int size() {
+    return days.size() + times.size();
+  }
+
+  /** @return the number of lookups that found a cached result */
+  public long getHits() {
+    return days.getHits() + times.getHits();
+  }
+
+  /** @return the number of lookups that had to parse the date string */
+  public long getMisses() {
+    return days.getMisses() + times.getMisses();
+  }
+
+  /** @return the number of results that have been evicted to make room for others */
+  public long getEvictions() {
+    return days.getEvictions() + times.getEvictions();
+  }
+
+  /** @return the ratio of hits to all lookups, 0 if there were none */
+  public double getHitRate() {
+    long hit = getHits();
+    long total = hit + getMisses();
+    return (total == 0) ? 0.0 : (double) hit / total;
+  }
+
+  /** @return the estimated number of bytes held by the cached results */
+  public long getFootprint() {
+    return days.getFootprint() + times.getFootprint();
+  }
+
+  /**
+   * Removes all cached results and resets the statistics.
+   *
+   * @return this to allow chaining
+   */
+  public DateCache clear() {
+    days.clear();
+    times.clear();
+    return this;
+  }
+
+  /** @return a summary of the statistics */
+  @Override
+  public String toString() {
+    return "DateCache[size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions="
+        + getEvictions() + ", footprint=" + getFootprint() + "]";
+  }
+
+  /**
+   * @param date the parsed date, may be null
+   * @return the epoch milliseconds, null if there was no date
+   */
+  private static Long toMillis(final Date date) {
+    return (date == null) ? null : date.getTime();
+  }
+
+  /**
+   * @param millis the cached epoch milliseconds, may be null
+   * @return a new date, null if there are no milliseconds
+   */
+  private static Date toDate(final Long millis) {
+    return (millis == null) ? null : new Date(millis);
+  }
+
+  /**
+   * @param text the cached date string
+   * @param millis the cached epoch milliseconds, may be null
+   * @return the estimated number of bytes held by both
+   */
+  private static long weigh(final String text, final Long millis) {
+    return STRING_BYTES + text.length() + ((millis == null) ? 0L : VALUE_BYTES);
+  }
+}
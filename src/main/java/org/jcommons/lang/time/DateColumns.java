@@ -0,0 +1,222 @@
+package org.jcommons.lang.time;
+
+import static org.jcommons.lang.time.DateScanner.ANY;
+import static org.jcommons.lang.time.DateScanner.NO_MATCH;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bulk conversion of whole columns of date strings, e.g. as read from a CSV file, into primitive epoch values.
+ *
+ * Each cell is converted as by {@link DateUtils#toDay(String)} or {@link DateUtils#toTime(String)} respectively, but
+ * the result is written into a <code>long[]</code> as epoch day or as epoch milliseconds of the local date and time,
+ * see {@link DateScanner}. Cells that are null or cannot be converted are marked in a bitmap, one bit per cell, that
+ * can be turned into a {@link java.util.BitSet} with {@link java.util.BitSet#valueOf(long[])}. Their value is set to
+ * {@link DateScanner#NO_MATCH}.
+ *
+ * The numeric format of a column is determined once and then reused for every cell. Only cells that do not fit this
+ * format are negotiated again, so a column with ambiguous dates such as <code>10-03-15</code> is interpreted
+ * consistently. Cells with month names are handed over to <code>DateUtils</code>. Large columns are split into chunks
+ * that are converted in parallel using the common fork-join pool.
+ *
+ * @author Thorsten Goeckeler
+ */
+public final class DateColumns
+{
+  /** columns up to this number of cells are converted by the calling thread, a multiple of 64 */
+  static final int CHUNK_SIZE = 4096;
+
+  /** hide sole constructor */
+  private DateColumns() {
+  }
+
+  /**
+   * Creates a bitmap that is large enough for the given number of cells.
+   *
+   * @param size the number of cells of the column
+   * @return a bitmap with one bit per cell, all bits cleared
+   */
+  public static long[] bitmap(final int size) {
+    return new long[(size + 63) >>> 6];
+  }
+
+  /**
+   * Checks if a cell has been marked as null or invalid.
+   *
+   * @param bitmap the bitmap as filled by the conversion
+   * @param index the index of the cell in the column
+   * @return true if the cell could not be converted
+   */
+  public static boolean isInvalid(final long[] bitmap, final int index) {
+    return (bitmap[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Converts a column of date strings into epoch days.
+   *
+   * @param column the date strings to convert, cells may be null
+   * @param days receives the epoch day of each cell, must be at least as long as the column
+   * @param invalid receives the bitmap of null or invalid cells, see {@link #bitmap(int)}
+   * @return the number of null or invalid cells
+   */
+  public static int toDays(final String[] column, final long[] days, final long[] invalid) {
+    return convert(Arrays.asList(column), days, invalid, false);
+  }
+
+  /**
+   * Converts a column of date strings into epoch days.
+   *
+   * @param column the date strings to convert, cells may be null
+   * @param days receives the epoch day of each cell, must be at least as long as the column
+   * @param invalid receives the bitmap of null or invalid cells, see {@link #bitmap(int)}
+   * @return the number of null or invalid cells
+   */
+  public static int toDays(final List<? extends CharSequence> column, final long[] days, final long[] invalid) {
+    return convert(column, days, invalid, false);
+  }
+
+  /**
+   * Converts a column of timestamp strings into epoch milliseconds of the local date and time.
+   *
+   * @param column the timestamp strings to convert, cells may be null
+   * @param times receives the epoch milliseconds of each cell, must be at least as long as the column
+   * @param invalid receives the bitmap of null or invalid cells, see {@link #bitmap(int)}
+   * @return the number of null or invalid cells
+   */
+  public static int toTimes(final String[] column, final long[] times, final long[] invalid) {
+    return convert(Arrays.asList(column), times, invalid, true);
+  }
+
+  /**
+   * Converts a column of timestamp strings into epoch milliseconds of the local date and time.
+   *
+   * @param column the timestamp strings to convert, cells may be null
+   * @param times receives the epoch milliseconds of each cell, must be at least as long as the column
+   * @param invalid receives the bitmap of null or invalid cells, see {@link #bitmap(int)}
+   * @return the number of null or invalid cells
+   */
+  public static int toTimes(final List<? extends CharSequence> column, final long[] times, final long[] invalid) {
+    return convert(column, times, invalid, true);
+  }
+
+  /**
+   * Converts a whole column, in parallel if the column is large enough.
+   *
+   * @param column the strings to convert
+   * @param values receives the converted values
+   * @param invalid receives the bitmap of null or invalid cells
+   * @param withTime true to convert timestamps, false to convert days
+   * @return the number of null or invalid cells
+   */
+  private static int convert(final List<? extends CharSequence> column, final long[] values, final long[] invalid,
+                             final boolean withTime)
+  {
+    int size = column.size();
+    if (values.length < size) {
+      throw new IllegalArgumentException("Values hold " + values.length + " instead of " + size + " cells");
+    }
+    if (invalid.length < (size + 63) >>> 6) {
+      throw new IllegalArgumentException("Bitmap holds " + invalid.length * 64 + " instead of " + size + " cells");
+    }
+
+    List<? extends CharSequence> cells = (column instanceof RandomAccess) ? column : new ArrayList<>(column);
+
+    // determine the format of the column once from the first cell that can be scanned
+    int format = ANY;
+    for (int i = 0; i < size && format == ANY; i++) {
+      CharSequence cell = cells.get(i);
+      if (cell != null) format = DateScanner.format(cell, 0, cell.length(), withTime);
+    }
+
+    Chunk chunk = new Chunk(cells, values, invalid, withTime, format, 0, size);
+    return (size <= CHUNK_SIZE) ? chunk.compute() : ForkJoinPool.commonPool().invoke(chunk);
+  }
+
+  /** A range of cells starting at a multiple of 64, so each chunk writes to words of the bitmap of its own. */
+  private static final class Chunk
+    extends RecursiveTask<Integer>
+  {
+    private static final long serialVersionUID = 6020542357519513371L;
+
+    private final transient List<? extends CharSequence> cells;
+    private final long[] values;
+    private final long[] invalid;
+    private final boolean withTime;
+    private final int format;
+    private final int start;
+    private final int end;
+
+    /**
+     * @param cells the strings to convert
+     * @param values receives the converted values
+     * @param invalid receives the bitmap of null or invalid cells
+     * @param withTime true to convert timestamps, false to convert days
+     * @param format the format to try first
+     * @param start the index of the first cell of this chunk, a multiple of 64
+     * @param end the index after the last cell of this chunk
+     */
+    Chunk(final List<? extends CharSequence> cells, final long[] values, final long[] invalid, final boolean withTime,
+          final int format, final int start, final int end)
+    {
+      this.cells = cells;
+      this.values = values;
+      this.invalid = invalid;
+      this.withTime = withTime;
+      this.format = format;
+      this.start = start;
+      this.end = end;
+    }
+
+    /** @return the number of null or invalid cells of this chunk */
+    @Override
+    protected Integer compute() {
+      if (end - start > CHUNK_SIZE) {
+        int middle = start + (((end - start) / 2 + 63) & ~63);
+        Chunk left = new Chunk(cells, values, invalid, withTime, format, start, middle);
+        Chunk right = new Chunk(cells, values, invalid, withTime, format, middle, end);
+        right.fork();
+        return left.compute() + right.join();
+      }
+
+      int failures = 0;
+      int current = format;
+      long word = 0;
+      for (int i = start; i < end; i++) {
+        CharSequence cell = cells.get(i);
+        long value = NO_MATCH;
+
+        if (cell != null) {
+          int length = cell.length();
+          if (current != ANY) value = DateScanner.scan(cell, 0, length, withTime, current);
+          if (value == NO_MATCH) {
+            // the format of the chunk does not fit, so negotiate again
+            int detected = DateScanner.format(cell, 0, length, withTime);
+            if (detected != ANY) {
+              current = detected;
+              value = DateScanner.scan(cell, 0, length, withTime, current);
+            } else {
+              String text = cell.toString();
+              value = withTime ? DateUtils.toEpochMillis(text) : DateUtils.toEpochDay(text);
+            }
+          }
+        }
+
+        values[i] = value;
+        if (value == NO_MATCH) {
+          word |= 1L << i;
+          failures++;
+        }
+        if ((i & 63) == 63 || i == end - 1) {
+          invalid[i >>> 6] = word;
+          word = 0;
+        }
+      }
+      return failures;
+    }
+  }
+}
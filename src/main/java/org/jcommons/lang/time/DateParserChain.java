@@ -0,0 +1,324 @@
+package org.jcommons.lang.time;
+
+import static java.util.Arrays.asList;
+
+import java.text.ParsePosition;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.apache.commons.lang3.time.DateParser;
+import org.apache.commons.lang3.time.FastDateParser;
+
+/**
+ * Immutable and thread-safe parser that tries a list of date formats for a list of locales until one matches.
+ *
+ * This is what {@link DateUtils#toDay(String)} and {@link DateUtils#toTime(String)} do for the default locale, Great
+ * Britain and Germany. Create your own chain once if your dates come in other locales or formats, and reuse it for
+ * all dates:
+ *
+ * <pre>
+ *   DateParserChain chain = DateParserChain.ofDays(Locale.FRANCE, Locale.of("nl", "NL"));
+ *   Date date = chain.parse("15 mars 2010");
+ * </pre>
+ *
+ * All parsers are created up front and held in flat arrays, in the order locale by locale and then format by format,
+ * so parsing does neither look up nor create any parsers. Duplicate locales are tried only once. A month name is
+ * looked up once in the month names of all locales, so formats with month names are only tried for the locales the
+ * month name is valid in. As with {@link java.text.SimpleDateFormat} these are the long and short month names of the
+ * locale, see {@link MonthNames}.
+ *
+ * A format must match the text up to its end, only a further part that is separated by whitespace, e.g. a time after
+ * a day, may follow. So <code>15.03.2010 14:15</code> is a day, but <code>15.03.2010x</code> is not.
+ *
+ * Years below 100 are moved into the {@link CenturyWindow#system() system window} as of the creation of the chain, so
+ * they end up in the same century as with {@link DateUtils#toCurrentCentury(Date)}.
+ *
+ * @author Thorsten Goeckeler
+ */
+public final class DateParserChain
+{
+  private final List<Locale> locales;
+  private final List<String> formats;
+  /** true if all formats require a time, so the chain is regarded as timestamp parser */
+  private final boolean withTime;
+  /** the first year of the window years below 100 are moved into */
+  private final int startYear;
+
+  /** the locale of each parser */
+  private final Locale[] parserLocales;
+  /** the format of each parser */
+  private final String[] parserFormats;
+  private final DateParser[] parsers;
+  /** the shape a text must have for each parser, see {@link DateShape} */
+  private final int[][] shapes;
+  /** the month names of all locales */
+  private final MonthNames months;
+  /** the bit of the locale of each parser with a month name that can be checked, otherwise 0 */
+  private final long[] monthLocales;
+
+  /**
+   * Creates the parsers for all given formats and locales.
+   *
+   * @param formats the formats to be tried in order
+   * @param locales the locales to be tried in order
+   */
+  private DateParserChain(final List<String> formats, final Locale... locales) {
+    this.locales = Collections.unmodifiableList(new ArrayList<Locale>(new LinkedHashSet<Locale>(asList(locales))));
+    this.formats = Collections.unmodifiableList(new ArrayList<String>(formats));
+
+    boolean timestamps = !formats.isEmpty();
+    for (String format : formats) {
+      timestamps &= format.indexOf('H') >= 0;
+    }
+    this.withTime = timestamps;
+    this.startYear = CenturyWindow.system().getStartYear();
+    Date centuryStart = new GregorianCalendar(startYear, Calendar.JANUARY, 1).getTime();
+
+    int size = this.locales.size() * this.formats.size();
+    this.parserLocales = new Locale[size];
+    this.parserFormats = new String[size];
+    this.parsers = new DateParser[size];
+    this.shapes = new int[size][];
+    this.months = new MonthNames(this.locales);
+    this.monthLocales = new long[size];
+
+    int index = 0;
+    for (int l = 0; l < this.locales.size(); l++) {
+      Locale locale = this.locales.get(l);
+      boolean lettered = isLettered(locale);
+      for (String format : this.formats) {
+        parserLocales[index] = locale;
+        parserFormats[index] = format;
+        parsers[index] = new WindowedParser(format, locale, centuryStart);
+        shapes[index] = DateShape.compile(format, lettered);
+
+        boolean textual = false;
+        for (int token : shapes[index]) {
+          textual |= token == DateShape.LETTERS;
+        }
+        monthLocales[index] = (textual && l < MonthNames.MAX_LOCALES) ? 1L << l : 0L;
+        index++;
+      }
+    }
+  }
+
+  /**
+   * Creates a chain for the given formats and locales.
+   *
+   * @param formats the formats to be tried in order, as used by {@link java.text.SimpleDateFormat}
+   * @param locales the locales to be tried in order
+   * @return the chain, never null
+   */
+  public static DateParserChain of(final List<String> formats, final Locale... locales) {
+    return new DateParserChain(formats, locales);
+  }
+
+  /**
+   * Creates a chain for the day formats as used by {@link DateUtils#toDay(String)} and the given locales.
+   *
+   * @param locales the locales to be tried in order
+   * @return the chain, never null
+   */
+  public static DateParserChain ofDays(final Locale... locales) {
+    return new DateParserChain(DateUtils.DAY_FORMATS, locales);
+  }
+
+  /**
+   * Creates a chain for the timestamp formats as used by {@link DateUtils#toTime(String)} and the given locales.
+   *
+   * @param locales the locales to be tried in order
+   * @return the chain, never null
+   */
+  public static DateParserChain ofTimes(final Locale... locales) {
+    return new DateParserChain(DateUtils.TIME_FORMATS, locales);
+  }
+
+  /** @return the locales in the order they are tried, without duplicates */
+  public List<Locale> getLocales() {
+    return locales;
+  }
+
+  /** @return the formats in the order they are tried */
+  public List<String> getFormats() {
+    return formats;
+  }
+
+  /**
+   * Tries to interpret a given string as date.
+   *
+   * @param dateString a formatted date string
+   * @return null if the date couldn't be parsed, otherwise the date moved into the current century if required
+   */
+  public Date parse(final String dateString) {
+    return parse(dateString, null);
+  }
+
+  /**
+   * Tries to interpret a given string as date, starting with the format that succeeded last time.
+   *
+   * @param dateString a formatted date string
+   * @param affinity remembers the last successful format, null to always try all formats in order
+   * @return null if the date couldn't be parsed, otherwise the date moved into the current century if required
+   * @see FormatAffinity
+   */
+  public Date parse(final String dateString, final FormatAffinity affinity) {
+    if (dateString == null || trimmedLength(dateString) < 6) return null;
+
+    DateShape shape = DateShape.of(dateString);
+    long valid = months(dateString, shape);
+
+    // try the format that succeeded last time first
+    int tried = -1;
+    FormatAffinity.Hint hint = (affinity == null) ? null : affinity.hint(withTime);
+    if (hint != null) {
+      tried = indexOf(hint);
+      Date date = (tried < 0) ? null : parse(dateString, shape, valid, tried);
+      if (date != null) {
+        affinity.hit(withTime, this, tried);
+        return DateUtils.toCurrentCentury(date);
+      }
+    }
+
+    // attempt to convert the given date
+    for (int i = 0; i < parsers.length; i++) {
+      if (i == tried) continue;
+
+      Date date = parse(dateString, shape, valid, i);
+      if (date != null) {
+        if (affinity != null) affinity.miss(withTime, this, i);
+        return DateUtils.toCurrentCentury(date);
+      }
+    }
+
+    if (affinity != null) affinity.miss(withTime, null, -1);
+    return null;
+  }
+
+  /** @return a short description of this chain */
+  @Override
+  public String toString() {
+    return "DateParserChain" + locales + formats;
+  }
+
+  /**
+   * Determines the locales in which the first word of the text is a month name.
+   *
+   * @param dateString the text to parse, must not be null
+   * @param shape the shape of the text
+   * @return one bit per locale of this chain, see {@link MonthNames}
+   */
+  long months(final String dateString, final DateShape shape) {
+    return (shape.letters() < 0) ? 0L : months.match(dateString, shape.letters());
+  }
+
+  /**
+   * Tries to parse the given text with a single parser.
+   *
+   * @param dateString the text to parse, must not be null
+   * @param shape the shape of the text
+   * @param valid the locales in which the month name of the text is valid
+   * @param index the index of the parser to use
+   * @return null if the parser does not match, otherwise the parsed date as is
+   */
+  Date parse(final String dateString, final DateShape shape, final long valid, final int index) {
+    if (!shape.matches(shapes[index])) return null;
+    if (monthLocales[index] != 0 && (valid & monthLocales[index]) == 0) return null;
+
+    ParsePosition position = new ParsePosition(0);
+    Date date = parsers[index].parse(dateString, position);
+    int end = position.getIndex();
+    // nothing but a part of its own may follow
+    return (date == null || (end < dateString.length() && !Character.isWhitespace(dateString.charAt(end)))) ? null
+        : date;
+  }
+
+  /** @return the first year of the window years below 100 are moved into */
+  int getStartYear() {
+    return startYear;
+  }
+
+  /**
+   * @param index the index of a parser
+   * @return the locale of that parser
+   */
+  Locale getLocale(final int index) {
+    return parserLocales[index];
+  }
+
+  /**
+   * @param index the index of a parser
+   * @return the format of that parser
+   */
+  String getFormat(final int index) {
+    return parserFormats[index];
+  }
+
+  /**
+   * Finds the parser for a remembered format.
+   *
+   * @param hint the remembered format
+   * @return the index of the parser, -1 if this chain has no such parser
+   */
+  private int indexOf(final FormatAffinity.Hint hint) {
+    if (hint.chain == this) return hint.index;
+
+    for (int i = 0; i < parsers.length; i++) {
+      if (parserFormats[i].equals(hint.format) && parserLocales[i].equals(hint.locale)) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Determines the length of the given text without leading and trailing whitespace as with {@link String#trim()}.
+   *
+   * @param text the text to measure
+   * @return the trimmed length
+   */
+  private static int trimmedLength(final String text) {
+    int start = 0;
+    int end = text.length();
+    while (start < end && text.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && text.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return end - start;
+  }
+
+  /**
+   * Checks if all month names of a locale start with a letter, so they can be told apart from numeric months.
+   *
+   * @param locale the locale to check
+   * @return true if all month names, short or long, start with a letter
+   */
+  private static boolean isLettered(final Locale locale) {
+    for (String name : MonthNames.names(locale)) {
+      if (!Character.isLetter(name.charAt(0))) return false;
+    }
+    return true;
+  }
+
+  /** Parser that moves years below 100 into a window starting at a given year. */
+  private static final class WindowedParser
+    extends FastDateParser
+  {
+    private static final long serialVersionUID = -2716423004431427406L;
+
+    /**
+     * @param format the format to parse
+     * @param locale the locale of the format
+     * @param centuryStart the start of the window years below 100 are moved into
+     */
+    WindowedParser(final String format, final Locale locale, final Date centuryStart) {
+      super(format, TimeZone.getDefault(), locale, centuryStart);
+    }
+  }
+}
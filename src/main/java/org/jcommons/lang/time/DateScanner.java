@@ -0,0 +1,326 @@
+package org.jcommons.lang.time;
+
+import java.util.Objects;
+
+/**
+ * Allocation free scanner for purely numeric dates as accepted by {@link DateUtils#toDay(String)} and
+ * {@link DateUtils#toTime(String)}.
+ *
+ * The scanner understands the numeric formats <code>y-M-d  d.M.y  d/M/y  d-M-y</code>, optionally followed by a time
+ * <code>HH:mm[:ss]</code>, and tries them in the same order as <code>DateUtils</code> does. Dashed dates are thus
+ * always taken as <code>y-M-d</code>, as <code>DateUtils</code> would roll such a date over rather than try
+ * <code>d-M-y</code>. Results are returned as primitive values, the epoch day for days and the epoch milliseconds of
+ * the local date and time for timestamps, i.e. as if the timestamp was given in UTC. If the text cannot be scanned
+ * {@link #NO_MATCH} is returned instead, no objects are created and no exceptions are thrown.
+ *
+ * The scanner is strict: dates and times that do not exist as well as digits other than ASCII are rejected, so
+ * <code>DateUtils</code> decides about them and rolls them over instead. Thus {@link DateUtils#toLocalDate(String)}
+ * yields the very same day as {@link DateUtils#toDay(String)}. As with <code>DateUtils</code> years below 100 are
+ * moved into the {@link CenturyWindow#system() system window}, and any text following the date or time is ignored as
+ * long as it is separated by whitespace.
+ * Texts of less than six characters without leading and trailing whitespace are rejected, as they are by
+ * <code>DateUtils</code>.
+ *
+ * @author Thorsten Goeckeler
+ */
+public final class DateScanner
+{
+  /** the value returned if the text cannot be scanned */
+  public static final long NO_MATCH = Long.MIN_VALUE;
+
+  /** no format known yet, all formats are tried in order */
+  static final int ANY = -1;
+  /** format <code>y-M-d</code> */
+  static final int YEAR_FIRST = 0;
+  /** format <code>d.M.y</code> */
+  static final int DOTTED = 1;
+  /** format <code>d/M/y</code> */
+  static final int SLASHED = 2;
+  /** format <code>d-M-y</code> */
+  static final int DASHED = 3;
+
+  /** milliseconds per day */
+  static final long MILLIS_PER_DAY = 86_400_000L;
+  /** days from 0000-01-01 to 1970-01-01 in the proleptic Gregorian calendar */
+  private static final long DAYS_0000_TO_1970 = 719_528L;
+  /** maximum number of digits per field, so the value still fits into the upper half of a long */
+  private static final int MAX_DIGITS = 9;
+  /** minimum length of a text without leading and trailing whitespace, as with <code>DateUtils</code> */
+  private static final int MIN_LENGTH = 6;
+
+  /** window for two-digit years as with {@link DateUtils#toCurrentCentury(int)} */
+  private static final CenturyWindow WINDOW = CenturyWindow.system();
+
+  /** hide sole constructor */
+  private DateScanner() {
+  }
+
+  /**
+   * Scans the given text for a day.
+   *
+   * @param text the text to scan, can be null
+   * @return the epoch day or {@link #NO_MATCH} if the text is not a numeric date
+   */
+  public static long scanDay(final CharSequence text) {
+    if (text == null) return NO_MATCH;
+    return scanDay(text, 0, text.length());
+  }
+
+  /**
+   * Scans a region of the given text for a day.
+   *
+   * @param text the text to scan, must not be null
+   * @param offset the index of the first character to scan
+   * @param length the number of characters to scan
+   * @return the epoch day or {@link #NO_MATCH} if the region is not a numeric date
+   */
+  public static long scanDay(final CharSequence text, final int offset, final int length) {
+    Objects.checkFromIndexSize(offset, length, text.length());
+    return scan(text, offset, offset + length, false, ANY);
+  }
+
+  /**
+   * Scans the given text for a timestamp.
+   *
+   * @param text the text to scan, can be null
+   * @return the epoch milliseconds of the local date and time or {@link #NO_MATCH} if the text is not a numeric
+   *         timestamp
+   */
+  public static long scanTime(final CharSequence text) {
+    if (text == null) return NO_MATCH;
+    return scanTime(text, 0, text.length());
+  }
+
+  /**
+   * Scans a region of the given text for a timestamp.
+   *
+   * @param text the text to scan, must not be null
+   * @param offset the index of the first character to scan
+   * @param length the number of characters to scan
+   * @return the epoch milliseconds of the local date and time or {@link #NO_MATCH} if the region is not a numeric
+   *         timestamp
+   */
+  public static long scanTime(final CharSequence text, final int offset, final int length) {
+    Objects.checkFromIndexSize(offset, length, text.length());
+    return scan(text, offset, offset + length, true, ANY);
+  }
+
+  /**
+   * Determines the first format that is able to scan the given text.
+   *
+   * @param text the text to scan
+   * @param start the index of the first character to scan
+   * @param end the index after the last character to scan
+   * @param withTime true if a time must follow the date
+   * @return the matching format, {@link #ANY} if none matches
+   */
+  static int format(final CharSequence text, final int start, final int end, final boolean withTime) {
+    for (int format = YEAR_FIRST; format <= DASHED; format++) {
+      if (scan(text, start, end, withTime, format) != NO_MATCH) return format;
+    }
+    return ANY;
+  }
+
+  /**
+   * Scans a date with an optional time.
+   *
+   * @param text the text to scan
+   * @param start the index of the first character to scan
+   * @param end the index after the last character to scan
+   * @param withTime true if a time must follow the date
+   * @param format the only format to try, or {@link #ANY} to try all of them in order
+   * @return the epoch day or epoch milliseconds, {@link #NO_MATCH} if the text cannot be scanned
+   */
+  static long scan(final CharSequence text, final int start, final int end, final boolean withTime,
+                   final int format)
+  {
+    if (trimmedLength(text, start, end) < MIN_LENGTH) return NO_MATCH;
+
+    long first = number(text, start, end);
+    if (first < 0) return NO_MATCH;
+
+    int index = position(first);
+    if (index >= end) return NO_MATCH;
+    char separator = text.charAt(index);
+    int dayFirst = (separator == '-') ? DASHED : (separator == '.') ? DOTTED : (separator == '/') ? SLASHED : ANY;
+    if (dayFirst == ANY) return NO_MATCH;
+    if (format != ANY && format != dayFirst && !(format == YEAR_FIRST && dayFirst == DASHED)) return NO_MATCH;
+
+    long second = number(text, index + 1, end);
+    if (second < 0) return NO_MATCH;
+    index = position(second);
+    if (index >= end || text.charAt(index) != separator) return NO_MATCH;
+
+    long third = number(text, index + 1, end);
+    if (third < 0) return NO_MATCH;
+    index = position(third);
+    if (!withTime && !isSeparated(text, index, end)) return NO_MATCH;
+
+    long day;
+    if (dayFirst == DASHED && format != DASHED) {
+      // y-M-d comes first and takes any numbers, so d-M-y is only tried if asked for
+      day = epochDay(value(first), value(second), value(third));
+    } else {
+      day = epochDay(value(third), value(second), value(first));
+    }
+
+    if (day == NO_MATCH || !withTime) return day;
+
+    long millis = time(text, index, end);
+    return (millis < 0) ? NO_MATCH : day * MILLIS_PER_DAY + millis;
+  }
+
+  /**
+   * Scans a time following a date, separated by a single space.
+   *
+   * @param text the text to scan
+   * @param start the index right after the date
+   * @param end the index after the last character to scan
+   * @return the milliseconds of the day, -1 if there is no valid time
+   */
+  private static long time(final CharSequence text, final int start, final int end) {
+    if (start >= end || text.charAt(start) != ' ') return -1;
+
+    long hour = number(text, start + 1, end);
+    if (hour < 0) return -1;
+    int index = position(hour);
+    if (index >= end || text.charAt(index) != ':') return -1;
+
+    long minute = number(text, index + 1, end);
+    if (minute < 0) return -1;
+    index = position(minute);
+
+    int seconds = 0;
+    if (index < end && text.charAt(index) == ':') {
+      long second = number(text, index + 1, end);
+      if (second < 0) return -1;
+      seconds = value(second);
+      index = position(second);
+      if (seconds > 59) return -1;
+    }
+
+    if (!isSeparated(text, index, end) || value(hour) > 23 || value(minute) > 59) return -1;
+    return ((value(hour) * 60L + value(minute)) * 60L + seconds) * 1000L;
+  }
+
+  /**
+   * Scans a non-negative number, leading whitespace is skipped.
+   *
+   * @param text the text to scan
+   * @param start the index of the first character to scan
+   * @param end the index after the last character to scan
+   * @return the value in the upper and the index after the number in the lower half, -1 if there is no number
+   */
+  private static long number(final CharSequence text, final int start, final int end) {
+    int index = start;
+    while (index < end && Character.isWhitespace(text.charAt(index))) {
+      index++;
+    }
+
+    int first = index;
+    long value = 0;
+    while (index < end) {
+      char c = text.charAt(index);
+      if (c < '0' || c > '9') break;
+      value = value * 10 + (c - '0');
+      index++;
+    }
+
+    int digits = index - first;
+    if (digits == 0 || digits > MAX_DIGITS) return -1;
+    return (value << 32) | index;
+  }
+
+  /**
+   * @param text the text to check
+   * @param index the index right after the date or time
+   * @param end the index after the last character to scan
+   * @return true if the date or time ends the text or is followed by whitespace
+   */
+  private static boolean isSeparated(final CharSequence text, final int index, final int end) {
+    return index >= end || Character.isWhitespace(text.charAt(index));
+  }
+
+  /**
+   * Determines the length of a region without leading and trailing whitespace as with {@link String#trim()}.
+   *
+   * @param text the text to measure
+   * @param start the index of the first character to measure
+   * @param end the index after the last character to measure
+   * @return the trimmed length
+   */
+  private static int trimmedLength(final CharSequence text, final int start, final int end) {
+    int first = start;
+    int last = end;
+    while (first < last && text.charAt(first) <= ' ') {
+      first++;
+    }
+    while (last > first && text.charAt(last - 1) <= ' ') {
+      last--;
+    }
+    return last - first;
+  }
+
+  /**
+   * @param number the number as returned by {@link #number(CharSequence, int, int)}
+   * @return the value of the number
+   */
+  private static int value(final long number) {
+    return (int) (number >>> 32);
+  }
+
+  /**
+   * @param number the number as returned by {@link #number(CharSequence, int, int)}
+   * @return the index after the number
+   */
+  private static int position(final long number) {
+    return (int) number;
+  }
+
+  /**
+   * Calculates the epoch day of the given date if it exists.
+   *
+   * @param year the year, years below 100 are moved into the current window
+   * @param month the month, 1 to 12
+   * @param day the day of the month
+   * @return the epoch day or {@link #NO_MATCH} if there is no such date
+   */
+  private static long epochDay(final int year, final int month, final int day) {
+    long y = WINDOW.toCurrentCentury(year);
+    if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(y, month)) return NO_MATCH;
+
+    long total = 365 * y + (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+    total += (367 * month - 362) / 12 + day - 1;
+    if (month > 2) {
+      total -= isLeapYear(y) ? 1 : 2;
+    }
+    return total - DAYS_0000_TO_1970;
+  }
+
+  /**
+   * @param year the full year
+   * @param month the month, 1 to 12
+   * @return the number of days of the given month
+   */
+  private static int lengthOfMonth(final long year, final int month) {
+    switch (month) {
+      case 2:
+        return isLeapYear(year) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  /**
+   * @param year the year to check
+   * @return true if the year is a leap year in the proleptic Gregorian calendar
+   */
+  private static boolean isLeapYear(final long year) {
+    return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+  }
+}
@@ -0,0 +1,139 @@
+package org.jcommons.lang.time;
+
+/**
+ * The coarse shape of a date string, i.e. the sequence of its digit runs, letter runs and separators.
+ *
+ * The shape is determined in a single pass and allows to rule out date formats that cannot possibly match before a
+ * parser is even tried. Whitespace is ignored entirely and only the first few tokens are considered, as the shape is
+ * only a necessary condition for a successful parse and never a sufficient one.
+ *
+ * @author Thorsten Goeckeler
+ */
+final class DateShape
+{
+  /** a run of digits, either in the shape or as a numeric field of a format */
+  static final int DIGITS = -1;
+  /** a run of letters, either in the shape or as a textual field of a format */
+  static final int LETTERS = -2;
+  /** anything may follow, the format cannot be checked any further */
+  static final int ANY = -3;
+
+  /** maximum number of tokens to be considered, more than any supported format has */
+  private static final int MAX_TOKENS = 16;
+
+  /** the separators or the token types, in the order of their occurrence */
+  private final int[] tokens = new int[MAX_TOKENS];
+  /** number of tokens found */
+  private int count;
+  /** index of the first letter in the text, -1 if there is none */
+  private int letters = -1;
+
+  /** hide constructor, use {@link #of(CharSequence)} */
+  private DateShape() {
+  }
+
+  /**
+   * Determines the shape of the given text.
+   *
+   * @param text the date string to examine, must not be null
+   * @return the shape of the given text, never null
+   */
+  static DateShape of(final CharSequence text) {
+    DateShape shape = new DateShape();
+    int length = text.length();
+    int index = 0;
+
+    while (index < length && shape.count < MAX_TOKENS) {
+      char c = text.charAt(index);
+      if (Character.isWhitespace(c)) {
+        index++;
+      } else if (Character.isDigit(c)) {
+        while (++index < length && Character.isDigit(text.charAt(index))) {
+          // skip the digit run
+        }
+        shape.tokens[shape.count++] = DIGITS;
+      } else if (Character.isLetter(c)) {
+        if (shape.letters < 0) shape.letters = index;
+        while (++index < length && Character.isLetter(text.charAt(index))) {
+          // skip the letter run
+        }
+        shape.tokens[shape.count++] = LETTERS;
+      } else {
+        shape.tokens[shape.count++] = c;
+        index++;
+      }
+    }
+
+    return shape;
+  }
+
+  /** @return the index of the first letter in the text, -1 if there is none */
+  int letters() {
+    return letters;
+  }
+
+  /**
+   * Checks if a text of this shape could possibly be parsed by a format.
+   *
+   * @param format the compiled format as created by {@link #compile(String, boolean)}
+   * @return false if the format will definitely not match, true if it might match
+   */
+  boolean matches(final int[] format) {
+    for (int i = 0; i < format.length; i++) {
+      if (format[i] == ANY) return true;
+      if (i >= count || tokens[i] != format[i]) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Compiles a date format pattern into the shape a matching text must start with.
+   *
+   * Numeric fields become digit runs, abutting ones a single run, and literals become separators, whitespace is
+   * skipped. Checking stops at the first textual month if the month names of the locale do not all start with a
+   * letter, and at any other field or quoted text that is not understood.
+   *
+   * @param pattern the pattern as used by {@link java.text.SimpleDateFormat}
+   * @param lettered true if all month names of the respective locale start with a letter
+   * @return the compiled format, never null
+   */
+  static int[] compile(final String pattern, final boolean lettered) {
+    int[] format = new int[MAX_TOKENS];
+    int count = 0;
+    int index = 0;
+
+    while (index < pattern.length() && count < MAX_TOKENS - 1) {
+      char c = pattern.charAt(index);
+      int end = index + 1;
+      while (end < pattern.length() && pattern.charAt(end) == c) {
+        end++;
+      }
+
+      if (Character.isWhitespace(c)) {
+        index++;
+        continue;
+      } else if ("dMyHms".indexOf(c) >= 0 && !(c == 'M' && end - index > 2)) {
+        // abutting numeric fields are a single run of digits
+        if (count == 0 || format[count - 1] != DIGITS || Character.isWhitespace(pattern.charAt(index - 1))) {
+          format[count++] = DIGITS;
+        }
+      } else if (c == 'M' && lettered) {
+        // the month name may contain further separators, so we cannot tell what follows
+        format[count++] = LETTERS;
+        format[count++] = ANY;
+        break;
+      } else if (Character.isLetter(c) || c == '\'') {
+        format[count++] = ANY;
+        break;
+      } else {
+        format[count++] = c;
+        end = index + 1;
+      }
+      index = end;
+    }
+
+    int[] compiled = new int[count];
+    System.arraycopy(format, 0, compiled, 0, count);
+    return compiled;
+  }
+}
@@ -1,7 +1,11 @@
 package org.jcommons.lang.time;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import static org.jcommons.lang.time.DateScanner.MILLIS_PER_DAY;
+import static org.jcommons.lang.time.DateScanner.NO_MATCH;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 
 /**
@@ -13,9 +17,9 @@ public final class DateUtils
   extends org.apache.commons.lang3.time.DateUtils
 {
   /** day formats to be tested */
-  private static final List<String> DAY_FORMATS = new ArrayList<String>();
+  static final List<String> DAY_FORMATS = new ArrayList<String>();
   /** day and time formats to be tested */
-  private static final List<String> TIME_FORMATS = new ArrayList<String>();
+  static final List<String> TIME_FORMATS = new ArrayList<String>();
 
   static {
     DAY_FORMATS.add("dd-MMM-yyyy");
@@ -54,8 +58,13 @@ public final class DateUtils
     TIME_FORMATS.add("d. MMMM y HH:mm");
   }
 
-  private static final Map<Locale, SimpleDateFormat[]> DAY_PATTERNS = new HashMap<Locale, SimpleDateFormat[]>();
-  private static final Map<Locale, SimpleDateFormat[]> TIME_PATTERNS = new HashMap<Locale, SimpleDateFormat[]>();
+  /** dates from this time on have a century in any time zone, somewhat after the year 100 */
+  private static final long CENTURY_GIVEN = LocalDate.of(200, 1, 1).toEpochDay() * MILLIS_PER_DAY;
+
+  /** day parsers for the default locale, replaced if the default locale changes */
+  private static volatile DateParserChain dayParsers = DateParserChain.ofDays(locales());
+  /** timestamp parsers for the default locale, replaced if the default locale changes */
+  private static volatile DateParserChain timeParsers = DateParserChain.ofTimes(locales());
 
   /** hide sole constructor */
   private DateUtils() {
@@ -75,40 +84,28 @@ public final class DateUtils
    * </code>
    *
    * These formats will be first tested against the default locale, and then against an English locale (Great Britain,
-   * not USA, because of the formats).
+   * not USA, because of the formats). A format must match the whole date, anything after it must be separated by
+   * whitespace, see {@link DateParserChain}.
    *
    * @param dateString a formatted date string
    * @return null if the date couldn't be parsed, otherwise the date
    */
   public static Date toDay(final String dateString) {
-    if (dateString == null || dateString.trim().length() < 6) return null;
-
-    // locales to be tried
-    Locale[] locales = { Locale.getDefault(), Locale.UK, Locale.GERMANY };
-
-    // attempt to convert the given date
-    for (Locale locale : locales) {
-      if (!DAY_PATTERNS.containsKey(locale)) {
-        // create appropriate date patterns/formatters for the given locale
-        List<SimpleDateFormat> patterns = new ArrayList<SimpleDateFormat>();
-        for (String pattern : DAY_FORMATS) {
-          patterns.add(new SimpleDateFormat(pattern, locale));
-        }
-
-        DAY_PATTERNS.put(locale, patterns.toArray(new SimpleDateFormat[0]));
-      }
+    return dayParsers().parse(dateString);
+  }
 
-      for (SimpleDateFormat pattern : DAY_PATTERNS.get(locale)) {
-        // try to convert the date string
-        try {
-          Date date = toCurrentCentury(pattern.parse(dateString));
-          if (date != null) return date;
-        } catch (ParseException pex) {
-          // well, didn't work, so why complain
-        }
-      }
-    }
-    return null;
+  /**
+   * Tries to interpret a given string as a day, starting with the format that succeeded last time.
+   *
+   * Behaves like {@link #toDay(String)}, but the format and locale that succeeded last time for the given affinity are
+   * tried first. Only if they fail, all formats are tried in order.
+   *
+   * @param dateString a formatted date string
+   * @param affinity remembers the last successful format, null to always try all formats in order
+   * @return null if the date couldn't be parsed, otherwise the date
+   */
+  public static Date toDay(final String dateString, final FormatAffinity affinity) {
+    return dayParsers().parse(dateString, affinity);
   }
 
   /**
@@ -131,34 +128,120 @@ public final class DateUtils
    * @return null if the date couldn't be parsed, otherwise the date with time details
    */
   public static Date toTime(final String dateString) {
-    if (dateString == null || dateString.trim().length() < 6) return null;
+    return timeParsers().parse(dateString);
+  }
+
+  /**
+   * Tries to interpret a given string as a timestamp, starting with the format that succeeded last time.
+   *
+   * Behaves like {@link #toTime(String)}, but the format and locale that succeeded last time for the given affinity
+   * are tried first. Only if they fail, all formats are tried in order.
+   *
+   * @param dateString a formatted date string
+   * @param affinity remembers the last successful format, null to always try all formats in order
+   * @return null if the date couldn't be parsed, otherwise the date with time details
+   */
+  public static Date toTime(final String dateString, final FormatAffinity affinity) {
+    return timeParsers().parse(dateString, affinity);
+  }
 
-    // locales to be tried
-    Locale[] locales = { Locale.getDefault(), Locale.UK, Locale.GERMANY };
+  /**
+   * Tries to interpret a given string as a local day, see {@link #toDay(String)}.
+   *
+   * Numeric dates are scanned directly by the {@link DateScanner} without creating a {@link Date} or {@link Calendar},
+   * all other dates are parsed as with {@link #toDay(String)} and converted using the default time zone. Either way the
+   * day is the very same as the one of <code>toDay</code>.
+   *
+   * @param dateString a formatted date string
+   * @return null if the date couldn't be parsed, otherwise the day
+   */
+  public static LocalDate toLocalDate(final String dateString) {
+    long day = toEpochDay(dateString);
+    return (day == NO_MATCH) ? null : LocalDate.ofEpochDay(day);
+  }
 
-    // attempt to convert the given date
-    for (Locale locale : locales) {
-      if (!TIME_PATTERNS.containsKey(locale)) {
-        // create appropriate date patterns/formatters for the given locale
-        List<SimpleDateFormat> patterns = new ArrayList<SimpleDateFormat>();
-        for (String pattern : TIME_FORMATS) {
-          patterns.add(new SimpleDateFormat(pattern, locale));
-        }
+  /**
+   * Tries to interpret a given string as a local timestamp, see {@link #toTime(String)}.
+   *
+   * Numeric timestamps are scanned directly by the {@link DateScanner} without creating a {@link Date} or
+   * {@link Calendar}, all other timestamps are parsed as with {@link #toTime(String)} and converted using the default
+   * time zone. Either way the timestamp is the very same as the one of <code>toTime</code>.
+   *
+   * @param dateString a formatted date string
+   * @return null if the date couldn't be parsed, otherwise the date with time details
+   */
+  public static LocalDateTime toLocalDateTime(final String dateString) {
+    long millis = toEpochMillis(dateString);
+    if (millis == NO_MATCH) return null;
+    return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L), (int) Math.floorMod(millis, 1000L) * 1_000_000,
+        ZoneOffset.UTC);
+  }
 
-        TIME_PATTERNS.put(locale, patterns.toArray(new SimpleDateFormat[0]));
-      }
+  /**
+   * Tries to interpret a given string as a day, see {@link #toLocalDate(String)}.
+   *
+   * @param dateString a formatted date string
+   * @return {@link DateScanner#NO_MATCH} if the date couldn't be parsed, otherwise the epoch day
+   */
+  public static long toEpochDay(final String dateString) {
+    long day = DateScanner.scanDay(dateString);
+    if (day != NO_MATCH) return day;
 
-      for (SimpleDateFormat pattern : TIME_PATTERNS.get(locale)) {
-        // try to convert the date string
-        try {
-          Date date = toCurrentCentury(pattern.parse(dateString));
-          if (date != null) return date;
-        } catch (ParseException pex) {
-          // well, didn't work, so why complain
-        }
-      }
+    Date date = toDay(dateString);
+    return (date == null) ? NO_MATCH : Math.floorDiv(toLocalMillis(date), MILLIS_PER_DAY);
+  }
+
+  /**
+   * Tries to interpret a given string as a timestamp, see {@link #toLocalDateTime(String)}.
+   *
+   * @param dateString a formatted date string
+   * @return {@link DateScanner#NO_MATCH} if the date couldn't be parsed, otherwise the epoch milliseconds of the local
+   *         date and time, i.e. as if the timestamp was given in UTC
+   */
+  public static long toEpochMillis(final String dateString) {
+    long millis = DateScanner.scanTime(dateString);
+    if (millis != NO_MATCH) return millis;
+
+    Date date = toTime(dateString);
+    return (date == null) ? NO_MATCH : toLocalMillis(date);
+  }
+
+  /**
+   * @param date the date to convert
+   * @return the epoch milliseconds of the local date and time in the default time zone
+   */
+  private static long toLocalMillis(final Date date) {
+    long millis = date.getTime();
+    return millis + TimeZone.getDefault().getOffset(millis);
+  }
+
+  /** @return the locales to be tried, the default locale and then English and German */
+  private static Locale[] locales() {
+    return new Locale[] { Locale.getDefault(), Locale.UK, Locale.GERMANY };
+  }
+
+  /** @return the day parsers for the current default locale and century window */
+  private static DateParserChain dayParsers() {
+    DateParserChain parsers = dayParsers;
+    if (!parsers.getLocales().get(0).equals(Locale.getDefault())
+        || parsers.getStartYear() != CenturyWindow.system().getStartYear())
+    {
+      parsers = DateParserChain.ofDays(locales());
+      dayParsers = parsers;
     }
-    return null;
+    return parsers;
+  }
+
+  /** @return the timestamp parsers for the current default locale and century window */
+  private static DateParserChain timeParsers() {
+    DateParserChain parsers = timeParsers;
+    if (!parsers.getLocales().get(0).equals(Locale.getDefault())
+        || parsers.getStartYear() != CenturyWindow.system().getStartYear())
+    {
+      parsers = DateParserChain.ofTimes(locales());
+      timeParsers = parsers;
+    }
+    return parsers;
   }
 
   /**
@@ -174,14 +257,14 @@ public final class DateUtils
   public static Date toCurrentCentury(final Date date) {
     Date currentDate = date;
 
-    if (currentDate != null) {
-      // apply sliding window technique around current year
-      Calendar today = Calendar.getInstance();
+    // most dates obviously have a century, so there is no need to look at them any closer
+    if (currentDate != null && currentDate.getTime() < CENTURY_GIVEN) {
       Calendar calendar = Calendar.getInstance();
       calendar.setTime(date);
       int year = calendar.get(Calendar.YEAR);
       if (year < 100) {
         // no century specified, window it
+        Calendar today = Calendar.getInstance();
         int currentYear = today.get(Calendar.YEAR) % 100;
         int century = today.get(Calendar.YEAR) - currentYear;
         year += century - ((year - currentYear > 25) ? 100 : 0);
@@ -193,6 +276,68 @@ public final class DateUtils
     return currentDate;
   }
 
+  /**
+   * Moves the day into this century using the sliding window technique if the century is amiss.
+   *
+   * @param date the day to move into this century if the century was not given
+   * @return <code>null</code> if the day was null, otherwise the day with century
+   * @see #toCurrentCentury(Date)
+   */
+  public static LocalDate toCurrentCenturyDate(final LocalDate date) {
+    return toCurrentCenturyDate(date, CenturyWindow.system());
+  }
+
+  /**
+   * Moves the day into the given window if the century is amiss.
+   *
+   * @param date the day to move into the window if the century was not given
+   * @param window the window to move the day into, must not be null
+   * @return <code>null</code> if the day was null, otherwise the day with century
+   */
+  public static LocalDate toCurrentCenturyDate(final LocalDate date, final CenturyWindow window) {
+    if (date == null) return null;
+    int year = window.toCurrentCentury(date.getYear());
+    return (year == date.getYear()) ? date : date.withYear(year);
+  }
+
+  /**
+   * Moves the timestamp into this century using the sliding window technique if the century is amiss.
+   *
+   * @param date the timestamp to move into this century if the century was not given
+   * @return <code>null</code> if the timestamp was null, otherwise the timestamp with century
+   * @see #toCurrentCentury(Date)
+   */
+  public static LocalDateTime toCurrentCenturyDateTime(final LocalDateTime date) {
+    return toCurrentCenturyDateTime(date, CenturyWindow.system());
+  }
+
+  /**
+   * Moves the timestamp into the given window if the century is amiss.
+   *
+   * @param date the timestamp to move into the window if the century was not given
+   * @param window the window to move the timestamp into, must not be null
+   * @return <code>null</code> if the timestamp was null, otherwise the timestamp with century
+   */
+  public static LocalDateTime toCurrentCenturyDateTime(final LocalDateTime date, final CenturyWindow window) {
+    if (date == null) return null;
+    int year = window.toCurrentCentury(date.getYear());
+    return (year == date.getYear()) ? date : date.withYear(year);
+  }
+
+  /**
+   * Moves a year into this century using the sliding window technique if the century is amiss.
+   *
+   * Years below 100 are moved into the current century unless they would be more than
+   * {@value CenturyWindow#YEARS_AHEAD} years ahead of the current year, in which case they are moved into the last
+   * century, all other years are returned as is. This is the very same rule as with {@link #toCurrentCentury(Date)}.
+   *
+   * @param year the year to move into this century if the century was not given
+   * @return the year with century
+   */
+  public static int toCurrentCentury(final int year) {
+    return CenturyWindow.system().toCurrentCentury(year);
+  }
+
   /**
    * Null-safe implementation to compare two dates against each other.
    *
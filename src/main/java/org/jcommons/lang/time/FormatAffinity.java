@@ -0,0 +1,157 @@
+package org.jcommons.lang.time;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers which format and locale last succeeded in parsing a date, so it can be tried first next time.
+ *
+ * Real feeds almost always use a single format, so trying the format that matched last time saves all the attempts
+ * that would otherwise be made with the formats listed before it. Pass an affinity to
+ * {@link DateUtils#toDay(String, FormatAffinity)} or {@link DateUtils#toTime(String, FormatAffinity)}, either one per
+ * feed or the {@link #global()} one. The same affinity can be used with a {@link DateParserChain}, days and timestamps
+ * are remembered separately.
+ *
+ * Be aware that ambiguous dates such as <code>10-03-15</code> are interpreted by the remembered format, which need not
+ * be the first one in order that would match.
+ *
+ * All methods are thread-safe and lock-free; the statistics are kept in {@link LongAdder}s.
+ *
+ * @author Thorsten Goeckeler
+ */
+public final class FormatAffinity
+{
+  /** the affinity shared by all callers that do not bring their own */
+  private static final FormatAffinity GLOBAL = new FormatAffinity();
+
+  /** last successful format for days, null if none yet */
+  private volatile Hint day;
+  /** last successful format for timestamps, null if none yet */
+  private volatile Hint time;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder savedAttempts = new LongAdder();
+
+  /** @return the affinity shared by all callers that do not bring their own */
+  public static FormatAffinity global() {
+    return GLOBAL;
+  }
+
+  /** @return the number of dates that were parsed by the remembered format */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** @return the number of dates for which all formats had to be tried in order, including invalid ones */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** @return the number of parse attempts with preceding formats that have been skipped thanks to the hits */
+  public long getSavedAttempts() {
+    return savedAttempts.sum();
+  }
+
+  /** @return the ratio of hits to all parsed dates, 0 if there were none */
+  public double getHitRate() {
+    long hit = getHits();
+    long total = hit + getMisses();
+    return (total == 0) ? 0.0 : (double) hit / total;
+  }
+
+  /**
+   * Forgets the remembered formats and resets the statistics.
+   *
+   * @return this to allow chaining
+   */
+  public FormatAffinity reset() {
+    day = null;
+    time = null;
+    hits.reset();
+    misses.reset();
+    savedAttempts.reset();
+    return this;
+  }
+
+  /** @return a summary of the statistics */
+  @Override
+  public String toString() {
+    return "FormatAffinity[hits=" + getHits() + ", misses=" + getMisses() + ", savedAttempts=" + getSavedAttempts()
+        + "]";
+  }
+
+  /**
+   * @param withTime true for timestamps, false for days
+   * @return the remembered format, null if there is none
+   */
+  Hint hint(final boolean withTime) {
+    return withTime ? time : day;
+  }
+
+  /**
+   * Counts a date that has been parsed by the remembered format, and moves the hint to the chain that parsed it, so
+   * the chain finds the format directly next time.
+   *
+   * @param withTime true for timestamps, false for days
+   * @param chain the chain that parsed the date
+   * @param index the index of the parser that matched within the chain
+   */
+  void hit(final boolean withTime, final DateParserChain chain, final int index) {
+    hits.increment();
+    savedAttempts.add(index);
+    remember(withTime, chain, index);
+  }
+
+  /**
+   * Counts a date for which all formats have been tried and remembers the one that matched.
+   *
+   * @param withTime true for timestamps, false for days
+   * @param chain the chain that parsed the date, null if none matched
+   * @param index the index of the parser that matched within the chain
+   */
+  void miss(final boolean withTime, final DateParserChain chain, final int index) {
+    misses.increment();
+    if (chain != null) remember(withTime, chain, index);
+  }
+
+  /**
+   * Remembers the format that matched, unless it is remembered already.
+   *
+   * @param withTime true for timestamps, false for days
+   * @param chain the chain that parsed the date
+   * @param index the index of the parser that matched within the chain
+   */
+  private void remember(final boolean withTime, final DateParserChain chain, final int index) {
+    Hint current = hint(withTime);
+    if (current != null && current.chain == chain && current.index == index) return;
+
+    Hint hint = new Hint(chain, index);
+    if (withTime) {
+      time = hint;
+    } else {
+      day = hint;
+    }
+  }
+
+  /** An immutable pair of locale and format that succeeded, together with the chain that it succeeded in. */
+  static final class Hint
+  {
+    final DateParserChain chain;
+    /** index of the parser in the chain, which is also the number of parsers tried before it */
+    final int index;
+    final Locale locale;
+    final String format;
+
+    /**
+     * @param chain the chain that parsed the date
+     * @param index the index of the parser that matched within the chain
+     */
+    Hint(final DateParserChain chain, final int index) {
+      this.chain = chain;
+      this.index = index;
+      this.locale = chain.getLocale(index);
+      this.format = chain.getFormat(index);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package org.jcommons.lang.time;
+
+import java.text.DateFormatSymbols;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Case insensitive trie of the short and long month names of several locales.
+ *
+ * A text is matched against all month names in a single pass, and the result tells in which of the locales the text
+ * starts with a month name. Locales are identified by their index in the list the trie was built from, only the first
+ * 64 locales are considered. Matching does not create any objects.
+ *
+ * The month names are the very same that {@link java.text.SimpleDateFormat} accepts, i.e. the long and short names
+ * of {@link DateFormatSymbols}. {@link org.apache.commons.lang3.time.FastDateFormat} accepts the stand-alone names as
+ * well, e.g. <code>Mär</code> besides <code>März</code> in German, so these are left out on purpose.
+ *
+ * @author Thorsten Goeckeler
+ */
+final class MonthNames
+{
+  /** maximum number of locales that can be told apart */
+  static final int MAX_LOCALES = 64;
+
+  /** the folded character of each node, the root has none */
+  private char[] keys = new char[64];
+  /** the first child of each node, 0 if it has none */
+  private int[] children = new int[64];
+  /** the next sibling of each node, 0 if it has none */
+  private int[] siblings = new int[64];
+  /** the locales in which a month name ends at each node */
+  private long[] masks = new long[64];
+  /** the number of nodes including the root */
+  private int size = 1;
+
+  /**
+   * Builds the trie for the given locales.
+   *
+   * @param locales the locales whose month names are to be matched
+   */
+  MonthNames(final List<Locale> locales) {
+    for (int i = 0; i < locales.size() && i < MAX_LOCALES; i++) {
+      for (String name : names(locales.get(i))) {
+        add(name, 1L << i);
+      }
+    }
+
+    keys = Arrays.copyOf(keys, size);
+    children = Arrays.copyOf(children, size);
+    siblings = Arrays.copyOf(siblings, size);
+    masks = Arrays.copyOf(masks, size);
+  }
+
+  /**
+   * @param locale the locale of the month names
+   * @return the long and short month names of the locale, without the empty thirteenth month
+   */
+  static List<String> names(final Locale locale) {
+    DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+    List<String> names = new ArrayList<String>();
+    for (String name : symbols.getMonths()) {
+      if (!name.isEmpty()) names.add(name);
+    }
+    for (String name : symbols.getShortMonths()) {
+      if (!name.isEmpty()) names.add(name);
+    }
+    return names;
+  }
+
+  /**
+   * Determines the locales in which the text starts with a month name at the given position.
+   *
+   * @param text the text to match
+   * @param start the index of the first character of the month name
+   * @return one bit per locale in which a month name matches, 0 if no month name matches at all
+   */
+  long match(final CharSequence text, final int start) {
+    long matches = 0;
+    int node = 0;
+    for (int index = start; index < text.length(); index++) {
+      char key = fold(text.charAt(index));
+      node = children[node];
+      while (node != 0 && keys[node] != key) {
+        node = siblings[node];
+      }
+      if (node == 0) break;
+      matches |= masks[node];
+    }
+    return matches;
+  }
+
+  /**
+   * Adds a month name to the trie.
+   *
+   * @param name the month name
+   * @param locale the bit of the locale of the month name
+   */
+  private void add(final String name, final long locale) {
+    int node = 0;
+    for (int index = 0; index < name.length(); index++) {
+      char key = fold(name.charAt(index));
+      int child = children[node];
+      while (child != 0 && keys[child] != key) {
+        child = siblings[child];
+      }
+      if (child == 0) {
+        child = node(key);
+        siblings[child] = children[node];
+        children[node] = child;
+      }
+      node = child;
+    }
+    masks[node] |= locale;
+  }
+
+  /**
+   * Creates a new node.
+   *
+   * @param key the folded character of the node
+   * @return the index of the new node
+   */
+  private int node(final char key) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      children = Arrays.copyOf(children, size * 2);
+      siblings = Arrays.copyOf(siblings, size * 2);
+      masks = Arrays.copyOf(masks, size * 2);
+    }
+    keys[size] = key;
+    return size++;
+  }
+
+  /**
+   * Folds the case of a character like {@link String#equalsIgnoreCase(String)} does.
+   *
+   * @param c the character to fold
+   * @return the folded character
+   */
+  private static char fold(final char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+}
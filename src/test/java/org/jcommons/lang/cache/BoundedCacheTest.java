@@ -0,0 +1,65 @@
+package org.jcommons.lang.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>BoundedCache</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class BoundedCacheTest
+{
+  /** Test method for {@link BoundedCache#get(Object, java.util.function.Function)}. */
+  @Test
+  public void testGet() {
+    AtomicInteger calls = new AtomicInteger();
+    BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>(10);
+
+    assertEquals(Integer.valueOf(3), cache.get("abc", key -> calls.incrementAndGet() > 0 ? key.length() : 0));
+    assertEquals(Integer.valueOf(3), cache.get("abc", key -> calls.incrementAndGet() > 0 ? key.length() : 0));
+    assertEquals(1, calls.get());
+
+    // null results are cached as well
+    assertNull(cache.get("none", key -> calls.incrementAndGet() > 0 ? null : 0));
+    assertNull(cache.get("none", key -> calls.incrementAndGet() > 0 ? null : 0));
+    assertEquals(2, calls.get());
+
+    assertEquals(2, cache.size());
+    assertEquals(2, cache.getHits());
+    assertEquals(2, cache.getMisses());
+    assertEquals(0.5, cache.getHitRate(), 0.001);
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getHits());
+    assertEquals(0.0, cache.getHitRate(), 0.001);
+
+    assertThrows(IllegalArgumentException.class, () -> new BoundedCache<String, String>(0));
+  }
+
+  /** Entries that have been read recently survive the eviction. */
+  @Test
+  public void testEviction() {
+    BoundedCache<Integer, Integer> cache = new BoundedCache<Integer, Integer>(3, (key, value) -> 10L);
+    for (int i = 0; i < 3; i++) {
+      cache.get(i, key -> key);
+    }
+    assertEquals(3 * (BoundedCache.ENTRY_BYTES + 10L), cache.getFootprint());
+
+    // read the first entry, so the second one is the least recently used
+    cache.get(0, key -> -1);
+    cache.get(3, key -> key);
+    assertEquals(3, cache.size());
+    assertEquals(1, cache.getEvictions());
+    assertEquals(Integer.valueOf(0), cache.get(0, key -> -1));
+    assertEquals(Integer.valueOf(-1), cache.get(1, key -> -1));
+    assertEquals(2, cache.getEvictions());
+    assertEquals(3 * (BoundedCache.ENTRY_BYTES + 10L), cache.getFootprint());
+  }
+}
@@ -6,11 +6,15 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.lessThan;
 import static org.jcommons.lang.number.NumberUtils.compare;
+import static org.jcommons.lang.number.NumberUtils.compareValues;
+import static org.jcommons.lang.number.NumberUtils.equalValues;
 import static org.jcommons.lang.number.NumberUtils.isNotNull;
 import static org.jcommons.lang.number.NumberUtils.isNull;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.Test;
 
@@ -55,6 +59,73 @@ public class NumberUtilsTest
     assertFalse(NumberUtils.equals(1, -1));
   }
 
+  /** check if we can compare the exact values of numbers of different types */
+  @Test
+  public void testCompareValues()
+  {
+    assertThat(compareValues((Number) null, null), equalTo(0));
+    assertThat(compareValues(null, 0), lessThan(0));
+    assertThat(compareValues(0.0, (Number) null), greaterThan(0));
+    assertThat(compareValues(Long.valueOf(1), Integer.valueOf(1)), equalTo(0));
+    assertThat(compareValues(1, new BigDecimal("1.00")), equalTo(0));
+    assertThat(compareValues(new BigDecimal("0.1"), 0.1), lessThan(0));
+    assertThat(compareValues(new BigInteger("9223372036854775808"), Long.MAX_VALUE), greaterThan(0));
+    assertThat(compareValues(Long.MIN_VALUE, new BigInteger("-9223372036854775809")), greaterThan(0));
+    assertThat(compareValues(BigInteger.TEN, new BigDecimal("10.0")), equalTo(0));
+    assertThat(compareValues(Double.NaN, BigDecimal.ONE), greaterThan(0));
+    assertThat(compareValues(Double.NEGATIVE_INFINITY, new BigInteger("-99999999999999999999")), lessThan(0));
+    assertThat(compareValues(new AtomicLong(5), 5.0f), equalTo(0));
+
+    // big numbers within the range of a long, or beyond it by sign and magnitude
+    assertThat(compareValues(5, new BigDecimal("5")), equalTo(0));
+    assertThat(compareValues(100, new BigDecimal("1E+2")), equalTo(0));
+    assertThat(compareValues(Long.MAX_VALUE, new BigDecimal("9223372036854775807")), equalTo(0));
+    assertThat(compareValues(Long.MAX_VALUE, new BigDecimal("9223372036854775807.5")), lessThan(0));
+    assertThat(compareValues(Long.MIN_VALUE, new BigDecimal("-1E+19")), greaterThan(0));
+    assertThat(compareValues(-1, new BigDecimal("1E+30")), lessThan(0));
+    assertThat(compareValues(1, new BigDecimal("-0.5")), greaterThan(0));
+    assertThat(compareValues(0, new BigDecimal("0E+30")), equalTo(0));
+    assertThat(compareValues(2.5, new BigDecimal("2")), greaterThan(0));
+    assertThat(compareValues(new BigDecimal("3"), new BigInteger("3")), equalTo(0));
+    assertThat(compareValues(new BigDecimal("-4"), new BigInteger("3")), lessThan(0));
+
+    // integral against floating point numbers without loss of precision
+    assertThat(compareValues(Long.MAX_VALUE, 0x1p63), lessThan(0));
+    assertThat(compareValues(Long.MIN_VALUE, -0x1p63), equalTo(0));
+    assertThat(compareValues(9007199254740993L, 9007199254740992.0), greaterThan(0));
+    assertThat(compareValues(2, 2.5), lessThan(0));
+    assertThat(compareValues(-2, -2.5), greaterThan(0));
+    assertThat(compareValues(-2.0, -2L), equalTo(0));
+    assertThat(compareValues(0, Double.NaN), lessThan(0));
+    assertThat(compareValues(0.0, -0.0), equalTo(0));
+    assertThat(compareValues(Double.NaN, Double.NaN), equalTo(0));
+    assertThat(compareValues(1, 2L), lessThan(0));
+    assertThat(compareValues(Integer.valueOf(3), 2), greaterThan(0));
+    assertThat(compareValues(Double.valueOf(3), 3.5), lessThan(0));
+  }
+
+  /** check if numbers of different types have the same exact value */
+  @Test
+  public void testEqualValues()
+  {
+    assertTrue(equalValues((Number) null, null));
+    assertTrue(equalValues(Long.valueOf(1), BigDecimal.ONE));
+    assertTrue(equalValues(Integer.valueOf(1), Long.valueOf(1)));
+    assertTrue(equalValues(new BigDecimal("2.50"), 2.5f));
+    assertTrue(equalValues(1, Long.valueOf(1)));
+    assertTrue(equalValues(Short.valueOf((short) 7), 7));
+    assertTrue(equalValues(3, 3.0));
+    assertTrue(equalValues(Double.NaN, Double.NaN));
+
+    assertFalse(equalValues(null, 0));
+    assertFalse(equalValues(0.0, (Number) null));
+    assertFalse(equalValues(Long.valueOf(1), (Number) null));
+    assertFalse(equalValues(Long.MAX_VALUE, 0x1p63));
+    assertFalse(equalValues(Double.valueOf(0.1), new BigDecimal("0.1")));
+    assertFalse(equalValues(0, Double.NaN));
+    assertFalse(equalValues(1L, 2));
+  }
+
   /** check if any number that is null or whose value is zero is regarded as a null */
   @Test
   public void testIsNull()
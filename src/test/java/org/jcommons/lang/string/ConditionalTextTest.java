@@ -0,0 +1,71 @@
+package org.jcommons.lang.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>ConditionalText</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class ConditionalTextTest
+{
+  /** the text must be the same as with <code>StringBuilderUtils</code> */
+  @Test
+  public void testAppendIfNotEmpty() {
+    ConditionalText text = ConditionalText.start("Criteria:").appendIfNotEmpty(" Invoice #", 123L, null)
+        .appendIfNotEmpty(" [", 0L, "]").appendIfNotEmpty(" Customer ", "John", null)
+        .appendIfNotEmpty(" [", " ", "]").appendIfNotEmpty(null, (String) null, "]").append(" (")
+        .appendIfNotEmpty(null, "tba", ")");
+
+    StringBuilder expected = new StringBuilder("Criteria:");
+    StringBuilderUtils.appendIfNotEmpty(expected, " Invoice #", 123L, null);
+    StringBuilderUtils.appendIfNotEmpty(expected, " [", 0L, "]");
+    StringBuilderUtils.appendIfNotEmpty(expected, " Customer ", "John", null);
+    StringBuilderUtils.appendIfNotEmpty(expected, " [", " ", "]");
+    StringBuilderUtils.appendIfNotEmpty(expected, null, (String) null, "]");
+    expected.append(" (");
+    StringBuilderUtils.appendIfNotEmpty(expected, null, "tba", ")");
+
+    assertEquals(expected.toString(), text.toString());
+    assertEquals(expected.length(), text.length());
+    assertEquals("Criteria: Invoice #123 Customer John (tba)", text.toString());
+    assertEquals("> Criteria:", text.appendTo(new StringBuilder("> ")).substring(0, 11));
+    assertEquals('#', text.charAt(18));
+    assertEquals("Invoice", text.subSequence(10, 17));
+    assertThrows(IndexOutOfBoundsException.class, () -> text.charAt(text.length()));
+
+    assertTrue(ConditionalText.start().appendIfNotEmpty("a", "", "b").append((String) null).isEmpty());
+    assertEquals("", ConditionalText.start(null).toString());
+    assertEquals("x", ConditionalText.start("x").toString());
+  }
+
+  /** texts are appended part by part */
+  @Test
+  public void testAppend() {
+    ConditionalText text = ConditionalText.start("a");
+    for (int i = 0; i < 20; i++) {
+      text.append(ConditionalText.start().appendIfNotEmpty("[", i, "]"));
+    }
+    assertEquals(IntStream.range(1, 20).mapToObj(i -> "[" + i + "]").collect(Collectors.joining("", "a", "")),
+        text.toString());
+    assertEquals(text.toString().length(), text.length());
+  }
+
+  /** Test method for {@link ConditionalText#joining(String, String)}. */
+  @Test
+  public void testJoining() {
+    assertEquals("#1 #3 #x ", Arrays.asList(1, 0, 3, null, "x", " ").stream()
+        .collect(ConditionalText.joining("#", " ")));
+
+    String expected = IntStream.range(1, 10000).mapToObj(i -> "<" + i + ">").collect(Collectors.joining());
+    assertEquals(expected, IntStream.range(0, 10000).boxed().parallel().collect(ConditionalText.joining("<", ">")));
+  }
+}
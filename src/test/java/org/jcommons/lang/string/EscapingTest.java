@@ -0,0 +1,58 @@
+package org.jcommons.lang.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>Escaping</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class EscapingTest
+{
+  private static final String[] VALUES = { "", "clean text", "<a href=\"x\">Tom & Jerry's</a>", "a\\b\n\tc\u0001\"",
+      "one, two", "say \"hi\"", "line\r\nbreak", "äöü €" };
+
+  /** Test method for {@link Escaping#escape(CharSequence)}. */
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testEscape() {
+    for (String value : VALUES) {
+      // non-ASCII characters are kept as they are
+      String html = value.chars().allMatch(c -> c < 128) ? StringEscapeUtils.escapeHtml4(value).replace("'", "&#39;")
+          : value;
+      assertEquals(html, Escaping.HTML.escape(value), value);
+      assertEquals(StringEscapeUtils.escapeCsv(value), Escaping.CSV.escape(value), value);
+    }
+
+    assertEquals("a\\\\b\\n\\tc\\u0001\\\"", Escaping.JSON.escape(VALUES[3]));
+    assertEquals("\\r\\n\\b\\f/", Escaping.JSON.escape("\r\n\b\f/"));
+    assertSame(VALUES[1], Escaping.HTML.escape(VALUES[1]));
+    assertSame(VALUES[7], Escaping.JSON.escape(VALUES[7]));
+    assertNull(Escaping.CSV.escape(null));
+  }
+
+  /** Test method for {@link Escaping#write(CharSequence, Appendable)}. */
+  @Test
+  public void testWrite()
+    throws IOException
+  {
+    for (Escaping escaping : Escaping.values()) {
+      for (String value : VALUES) {
+        StringWriter writer = new StringWriter();
+        escaping.write(value, writer);
+        escaping.write(new StringBuilder(value), writer);
+        String escaped = escaping.escape(value).toString();
+        assertEquals(escaped + escaped, writer.toString(), escaping + " " + value);
+        assertEquals(">" + escaped, escaping.escape(value, new StringBuilder(">")).toString());
+      }
+    }
+  }
+}
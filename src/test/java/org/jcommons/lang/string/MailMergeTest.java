@@ -0,0 +1,78 @@
+package org.jcommons.lang.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>MailMerge</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class MailMergeTest
+{
+  private static final NamedTemplate TEMPLATE =
+      NamedTemplate.compile("Dear ${name}, your balance is ${balance:-0} on ${date}.");
+
+  /** Test method for {@link MailMerge#merge(NamedTemplate, Map, java.util.function.ObjLongConsumer)}. */
+  @Test
+  public void testMergeColumns() {
+    int size = 100000;
+    Object[] names = new Object[size];
+    Object[] balances = new Object[size];
+    for (int i = 0; i < size; i++) {
+      names[i] = "customer " + i;
+      balances[i] = (i % 7 == 0) ? null : i * 3;
+    }
+    Map<String, Object[]> columns = new HashMap<String, Object[]>();
+    columns.put("name", names);
+    columns.put("balance", balances);
+    columns.put("unused", new Object[size]);
+
+    List<String> texts = new ArrayList<String>();
+    assertEquals(size, MailMerge.merge(TEMPLATE, columns, (text, row) -> {
+      assertEquals(texts.size(), row);
+      texts.add(text.toString());
+    }));
+
+    assertEquals(size, texts.size());
+    for (int i = 0; i < size; i++) {
+      assertEquals(TEMPLATE.render(names[i], balances[i]), texts.get(i));
+    }
+
+    assertEquals(0, MailMerge.merge(TEMPLATE, Collections.<String, Object[]>emptyMap(), (text, row) -> texts.clear()));
+    columns.put("date", new Object[size - 1]);
+    assertThrows(IllegalArgumentException.class, () -> MailMerge.merge(TEMPLATE, columns, (text, row) -> { }));
+  }
+
+  /** Test method for {@link MailMerge#merge(NamedTemplate, java.util.Iterator, java.util.function.ObjLongConsumer)}. */
+  @Test
+  public void testMergeRows() {
+    List<Object[]> rows = new ArrayList<Object[]>();
+    for (int i = 0; i < 1000; i++) {
+      rows.add((i % 10 == 0) ? null : new Object[] { "customer " + i, i, "01.0" + (i % 9 + 1) + ".2024" });
+    }
+
+    StringBuilder output = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    assertEquals(rows.size(), MailMerge.merge(TEMPLATE, rows.iterator(), (text, row) -> output.append(text)));
+    for (Object[] row : rows) {
+      TEMPLATE.renderTo(expected, row);
+    }
+    assertEquals(expected.toString(), output.toString());
+
+    assertEquals(0, MailMerge.merge(TEMPLATE, Collections.<Object[]>emptyIterator(), (text, row) -> { }));
+    assertThrows(IllegalStateException.class, () -> MailMerge.merge(TEMPLATE,
+        Arrays.asList(new Object[][] { { "x" } }).iterator(), (text, row) -> {
+          throw new IllegalStateException(text.toString());
+        }));
+  }
+}
@@ -0,0 +1,82 @@
+package org.jcommons.lang.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>MessageFormatCache</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class MessageFormatCacheTest
+{
+  /** Test method for {@link MessageFormatCache#format(String, Locale, Object...)}. */
+  @Test
+  public void testFormat() {
+    MessageFormatCache cache = new MessageFormatCache(2);
+
+    assertEquals("Hello John!", cache.format("Hello {0}!", Locale.UK, "John"));
+    assertEquals("Hello Jane!", cache.format("Hello {0}!", Locale.UK, "Jane"));
+    assertEquals("1,234.5", cache.format("{0}", Locale.UK, 1234.5));
+    assertEquals("1.234,5", cache.format("{0}", Locale.GERMANY, 1234.5));
+    assertEquals(1, cache.getHits());
+    assertEquals(3, cache.getMisses());
+    assertEquals(1, cache.getEvictions());
+    assertEquals(2, cache.size());
+
+    assertThrows(IllegalArgumentException.class, () -> cache.format("Hello {0!", Locale.UK, "John"));
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getMisses());
+  }
+
+  /** Formats are handed out as copies, so they may be modified by the caller. */
+  @Test
+  public void testGetFormat() {
+    MessageFormatCache cache = new MessageFormatCache(10);
+    assertNotSame(cache.getFormat("Hello {0}!", Locale.UK), cache.getFormat("Hello {0}!", Locale.UK));
+    assertEquals(cache.getFormat("Hello {0}!", Locale.UK), cache.getFormat("Hello {0}!", Locale.UK));
+    assertNotSame(cache.getFormat("{0,number,#.##}", Locale.UK), cache.getFormat("{0,number,#.##}", Locale.UK));
+    assertNotSame(cache.getFormat("Hello {0}!", Locale.UK), cache.getFormat("Hello {0}!", Locale.GERMANY));
+
+    cache.getFormat("Hello {0}!", Locale.UK).applyPattern("Goodbye {0}!");
+    assertEquals("Hello John!", cache.format("Hello {0}!", Locale.UK, "John"));
+  }
+
+  /** Sub formats must not be corrupted if many threads use the same pattern. */
+  @Test
+  public void testConcurrentFormatting()
+    throws Exception
+  {
+    final MessageFormatCache cache = new MessageFormatCache(10);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+      for (int task = 0; task < 64; task++) {
+        final double value = task + 0.25;
+        results.add(executor.submit(() -> {
+          boolean correct = true;
+          for (int i = 0; i < 200; i++) {
+            correct &= String.format(Locale.UK, "%.2f and %d", value, i)
+                .equals(cache.format("{0,number,0.00} and {1}", Locale.UK, value, i));
+          }
+          return correct;
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertTrue(result.get());
+      }
+    }
+  }
+}
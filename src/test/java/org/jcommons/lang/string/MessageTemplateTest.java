@@ -0,0 +1,82 @@
+package org.jcommons.lang.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>MessageTemplate</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class MessageTemplateTest
+{
+  private static final String[] PATTERNS = { "", "Hello {0}!", "{0} {1}!", "{1}{0}", "It''s {0}", "'{0}' is {0}",
+      "'It''s' {0}", "{0} and {2}", "{00} and {01}", "a } b {0}", "unterminated 'quote {0}", "{0,number,#.##}",
+      "{0,date,short} {1}", "{1,choice,0#none|1#one|1<many}" };
+
+  private static final Object[][] ARGUMENTS = { {}, { "John" }, { "Hello", "John" }, { null, "x" },
+      { "'quoted'", "{1}" }, { 1234.5, "John" }, { new Date(0), 2 } };
+
+  /** The template must yield exactly the same as a MessageFormat. */
+  @Test
+  public void testSameAsMessageFormat()
+    throws IOException
+  {
+    for (Locale locale : new Locale[] { Locale.UK, Locale.GERMANY }) {
+      for (String pattern : PATTERNS) {
+        MessageTemplate template = MessageTemplate.compile(pattern, locale);
+        for (Object[] arguments : ARGUMENTS) {
+          String message = pattern + " " + locale + " " + arguments.length;
+          String expected;
+          try {
+            expected = new MessageFormat(pattern, locale).format(arguments);
+          } catch (IllegalArgumentException e) {
+            assertThrows(IllegalArgumentException.class, () -> template.format(arguments), message);
+            continue;
+          }
+          assertEquals(expected, template.format(arguments), message);
+          assertEquals(expected, template.formatTo(new StringBuilder(), arguments).toString(), message);
+          assertEquals(expected, template.formatTo(new StringWriter(), arguments).toString(), message);
+          if (arguments.length == 1) assertEquals(expected, template.format(arguments[0]), message);
+          if (arguments.length == 2) assertEquals(expected, template.format(arguments[0], arguments[1]), message);
+        }
+      }
+    }
+  }
+
+  /** Test method for {@link MessageTemplate#isPlain()}. */
+  @Test
+  public void testIsPlain() {
+    assertTrue(MessageTemplate.compile("Hello {0}!", Locale.UK).isPlain());
+    assertTrue(MessageTemplate.compile("It''s '{0}'", Locale.UK).isPlain());
+    assertFalse(MessageTemplate.compile("{0,number,#.##}", Locale.UK).isPlain());
+
+    assertEquals("prefix: Hello John!",
+        MessageTemplate.compile("Hello {0}!", Locale.UK).formatTo(new StringBuilder("prefix: "), "John").toString());
+    assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Hello {0!", Locale.UK));
+    assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Hello { 0}!", Locale.UK));
+  }
+
+  /** Test method for {@link MessageTemplate#toFormat()}. */
+  @Test
+  public void testToFormat() {
+    MessageTemplate template = MessageTemplate.compile("Hello {0}!", Locale.UK);
+    MessageFormat format = template.toFormat();
+    assertNotSame(format, template.toFormat());
+
+    format.applyPattern("Goodbye {0}!");
+    assertEquals("Goodbye John!", format.format(new Object[] { "John" }));
+    assertEquals("Hello John!", template.format("John"));
+  }
+}
@@ -3,6 +3,13 @@ package org.jcommons.lang.string;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
 import org.junit.jupiter.api.Test;
 
 /** Simply test if messages with named parameters can be easily used. */
@@ -40,4 +47,122 @@ public class NamedStringTest
     assertEquals("Hello ${forename}.", text.toString());
     assertEquals("Hello John.", text.text("Hello ${name}.").toString());
   }
+
+  /** test streaming to a writer */
+  @Test
+  public void testRenderTo()
+    throws IOException
+  {
+    NamedString text = NamedString.message("Hello ${name}.").with("name", "John");
+    assertEquals("Hello John.", text.renderTo(new StringWriter()).toString());
+    assertEquals("", NamedString.message().renderTo(new StringWriter()).toString());
+
+    text.with("name", "J\u00fcrgen");
+    assertEquals(14, text.encodedLength());
+    ByteBuffer buffer = text.renderTo(ByteBuffer.allocate(14));
+    assertEquals("Hello J\u00fcrgen.", new String(buffer.array(), StandardCharsets.UTF_8));
+    assertEquals(0, NamedString.message().encodedLength());
+  }
+
+  /** test reusing the same instance for many messages */
+  @Test
+  public void testReuse() {
+    NamedString text = NamedString.message("${greeting} ${name}, you owe ${amount:-nothing}.");
+    StringBuilder output = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      text.clear().with("greeting", "Hello").with("name", "customer " + i);
+      if (i % 2 == 0) text.with("amount", i);
+
+      String expected = "Hello customer " + i + ", you owe " + ((i % 2 == 0) ? i : "nothing") + ".";
+      assertEquals(expected, text.toString());
+      output.setLength(0);
+      assertEquals(expected, text.renderTo(output).toString());
+    }
+
+    assertEquals("${a}", text.text("${a}").with(null, "ignored").toString());
+    assertEquals("Hi ${city}", text.text("Hi ${a}").with("a", "${city}").toString());
+  }
+
+  /** a buffer that had to grow for a large value is not retained, but the text is still rendered */
+  @Test
+  public void testReuseAfterLargeValue() {
+    String large = StringUtils.repeat('x', 2 * StringBuilderPool.MAX_CAPACITY);
+    NamedString text = NamedString.message("Hello ${name}.").with("name", large);
+    assertEquals("Hello " + large + ".", text.toString());
+    assertEquals("Hello John.", text.with("name", "John").toString());
+  }
+
+  /** test deferred values and the rendered character sequence */
+  @Test
+  public void testDeferred() {
+    int[] calls = new int[1];
+    NamedString text = NamedString.message("Hello ${name}.").with("name", () -> {
+      calls[0]++;
+      return "John";
+    });
+    assertEquals(0, calls[0]);
+
+    // a pass over the characters renders the text once
+    assertEquals(11, text.length());
+    assertEquals('J', text.charAt(6));
+    assertEquals("John", text.subSequence(6, 10).toString());
+    assertEquals(1, calls[0]);
+    assertEquals("Hello John.", text.toString());
+    assertEquals(2, calls[0]);
+
+    // once per rendering, no matter how often the placeholder occurs
+    assertEquals("John or John", text.text("${name} or ${name}").toString());
+    assertEquals(3, calls[0]);
+
+    // a new value discards the rendered text
+    text.with("name", "Jill");
+    assertEquals("Jill or Jill", text.toString());
+    text.with("name", (Supplier<?>) null);
+    assertEquals("${name} or ${name}", text.toString());
+    text.with("name", () -> null).text("Hi ${name}!");
+    assertEquals("Hi ${name}!", text.toString());
+    assertEquals(3, calls[0]);
+  }
+
+  /** values that are changed in place show in every rendering */
+  @Test
+  public void testMutableValue() {
+    StringBuilder name = new StringBuilder("John");
+    int[] calls = new int[1];
+    NamedString text = NamedString.message("Hello ${name} (${visits}).").with("name", name).with("visits", () -> {
+      calls[0]++;
+      return calls[0];
+    });
+    assertEquals("Hello John (1).", text.toString());
+
+    name.append(" Smith");
+    assertEquals("Hello John Smith (2).", text.toString());
+    assertEquals("Hello John Smith (3).", text.renderTo(new StringBuilder()).toString());
+    assertEquals(21, text.length());
+    assertEquals("Smith", text.subSequence(11, 16).toString());
+    assertEquals(4, calls[0]);
+  }
+
+  /** test escaping of values */
+  @Test
+  public void testEscape() {
+    NamedString text = NamedString.message("${name},${city}").with("name", "Smith, John").with("city", "<Berlin>");
+    assertEquals("\"Smith, John\",<Berlin>", text.escape(Escaping.CSV).toString());
+    assertEquals("\"Smith, John\",&lt;Berlin&gt;", text.escape("city", Escaping.HTML).toString());
+    assertEquals("Smith, John,<Berlin>", text.escape(null).toString());
+    assertEquals("Smith, John", text.text("${name}").escape("city", Escaping.HTML).toString());
+  }
+
+  /** test typed placeholders */
+  @Test
+  public void testFormat() {
+    NamedString text = NamedString.message("${count,number,0} on ${day,date,yyyy-MM-dd}").with("count", 41.9)
+        .with("day", LocalDate.of(2024, 2, 1));
+    assertEquals("42 on 2024-02-01", text.toString());
+    assertEquals("7 on 2024-02-01", text.with("count", () -> 7).toString());
+
+    // names with an invalid pattern are taken as they are
+    assertEquals("${a,number,#.#.#}", NamedString.message("${a,number,#.#.#}").toString());
+    assertEquals("1.5", NamedString.message("${a,number,#.#.#}").with("a,number,#.#.#", 1.5).toString());
+  }
 }
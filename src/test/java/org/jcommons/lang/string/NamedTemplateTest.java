@@ -0,0 +1,280 @@
+package org.jcommons.lang.string;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.lang3.text.StrSubstitutor;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>NamedTemplate</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class NamedTemplateTest
+{
+  private static final String[] TEXTS = { "", "no placeholders", "Hello ${name}.", "${name}${city}", "${name} ${name}",
+      "$${name} is ${name}", "$$${name}", "${name:-nobody} from ${city:-nowhere}", "${missing}", "${name",
+      "${name $${city}", "$${name", "${a${name}}", "${name:-${city}}", "${}", "${name}}", "price: $${amount}$",
+      "Gr\u00fc\u00dfe ${name} \u2014 ${city:-\u20ac}" };
+
+  private static final Object[][] VALUES = { {}, { "John", "Berlin" }, { null, "Berlin" }, { 42, null },
+      { "${city}", "Berlin" }, { "x$", "y" }, { "", "" },
+      { "\uD83D\uDE00 J\u00fcrgen", "\uD800x" } };
+
+  /** The template must yield exactly the same as StrSubstitutor. */
+  @Test
+  public void testSameAsStrSubstitutor() {
+    for (String text : TEXTS) {
+      NamedTemplate template = NamedTemplate.compile(text);
+      for (Object[] values : VALUES) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        if (values.length > 0) {
+          map.put("name", values[0]);
+          map.put("city", values[1]);
+        }
+        String message = text + " " + Arrays.toString(values);
+        assertEquals(StrSubstitutor.replace(text, map), template.render(map), message);
+        assertEquals(StrSubstitutor.replace(text, map), template.render(map::get), message);
+      }
+    }
+  }
+
+  /** Test method for {@link NamedTemplate#render(Object...)}. */
+  @Test
+  public void testRender() {
+    NamedTemplate template = NamedTemplate.compile("Hello ${name}, welcome to ${city}. Bye ${name}!");
+    assertEquals(Arrays.asList("name", "city"), template.getNames());
+    assertEquals(1, template.indexOf("city"));
+    assertEquals(-1, template.indexOf("country"));
+
+    assertEquals("Hello John, welcome to Berlin. Bye John!", template.render("John", "Berlin"));
+    assertEquals("Hello John, welcome to ${city}. Bye John!", template.render("John"));
+    assertEquals("> Hello Jill, welcome to Rome. Bye Jill!",
+        template.renderTo(new StringBuilder("> "), "Jill", "Rome").toString());
+
+    // recursive values are detected as by StrSubstitutor
+    assertThrows(IllegalStateException.class, () -> template.render("${name}", "Berlin"));
+  }
+
+  /** Test method for {@link NamedTemplate#precompiled(String, String[], String[], int[], String[])}. */
+  @Test
+  public void testPrecompiled() {
+    String text = "Hello ${name}, welcome to ${city:-Berlin}. Bye ${name}!";
+    NamedTemplate template = NamedTemplate.precompiled(text, new String[] { "name", "city" },
+        new String[] { "Hello ", ", welcome to ", ". Bye ", "!" }, new int[] { 0, 1, 0 },
+        new String[] { null, "Berlin", null });
+    NamedTemplate compiled = NamedTemplate.compile(text);
+
+    assertEquals(compiled.getNames(), template.getNames());
+    for (Object[] values : VALUES) {
+      assertEquals(compiled.render(values), template.render(values), Arrays.toString(values));
+    }
+    assertThrows(IllegalArgumentException.class,
+        () -> NamedTemplate.precompiled(text, new String[] { "name" }, new String[] { "", "" }, new int[] { 1 },
+            new String[] { null }));
+    assertThrows(IllegalArgumentException.class,
+        () -> NamedTemplate.precompiled(text, new String[] { "name" }, new String[] { "" }, new int[] { 0 },
+            new String[] { null }));
+  }
+
+  /** Test method for {@link NamedTemplate#precompiled(String, String[], String[], int[], String[], String[])}. */
+  @Test
+  public void testPrecompiledTyped() {
+    String text = "${amount,number,#,##0.00} for ${name} and ${amount}";
+    NamedTemplate template = NamedTemplate.precompiled(text, new String[] { "amount", "name" },
+        new String[] { "", " for ", " and ", "" }, new int[] { 0, 1, 0 }, new String[] { null, null, null },
+        new String[] { "number,#,##0.00", null, null });
+    NamedTemplate compiled = NamedTemplate.compile(text);
+
+    assertEquals(compiled.getNames(), template.getNames());
+    assertEquals(compiled.render(1234.5, "John"), template.render(1234.5, "John"));
+    assertEquals(compiled.render(1234.5, "${x}"), template.render(1234.5, "${x}"));
+    assertEquals(compiled.render(null, "John"), template.render(null, "John"));
+    assertThrows(IllegalArgumentException.class,
+        () -> NamedTemplate.precompiled(text, new String[] { "amount" }, new String[] { "", "" }, new int[] { 0 },
+            new String[] { null }, new String[] { "money" }));
+    assertThrows(IllegalArgumentException.class,
+        () -> NamedTemplate.precompiled(text, new String[] { "amount" }, new String[] { "", "" }, new int[] { 0 },
+            new String[] { null }, new String[0]));
+  }
+
+  /** Test method for {@link NamedTemplate#escape(Escaping)}. */
+  @Test
+  public void testEscape()
+    throws IOException
+  {
+    NamedTemplate template = NamedTemplate.compile("<p title=\"${title:-<none>}\">${body}</p>").escape(Escaping.HTML);
+    assertEquals(Escaping.HTML, template.getEscaping("body"));
+    assertEquals("<p title=\"&quot;a&quot; &amp; b\"><b>${x}</b></p>",
+        template.escape("body", null).render("\"a\" & b", "<b>${x}</b>"));
+    assertEquals("<p title=\"<none>\">&lt;b&gt;${x}&lt;/b&gt;</p>", template.render(null, "<b>${x}</b>"));
+    assertEquals("<p title=\"<none>\">&lt;b&gt;${x}&lt;/b&gt;</p>",
+        template.renderTo(new StringWriter(), name -> "body".equals(name) ? "<b>${x}</b>" : null).toString());
+
+    String expected = "<p title=\"\u00e4&lt;\">\u20ac&amp;</p>";
+    byte[] bytes = expected.getBytes(StandardCharsets.UTF_8);
+    assertEquals(bytes.length, template.encodedLength("\u00e4<", "\u20ac&"));
+    assertArrayEquals(bytes, template.renderTo(ByteBuffer.allocate(bytes.length), "\u00e4<", "\u20ac&").array());
+
+    NamedTemplate json =
+        NamedTemplate.compile("{\"name\": \"${name}\", \"raw\": ${raw}}").escape("name", Escaping.JSON);
+    assertEquals("{\"name\": \"say \\\"hi\\\"\", \"raw\": [1]}", json.render("say \"hi\"", "[1]"));
+    assertNull(json.getEscaping("raw"));
+    // values of unescaped placeholders are still substituted recursively
+    assertEquals("{\"name\": \"&\\n\", \"raw\": ${name}}", json.render("&\n", "$${name}"));
+    assertThrows(IllegalArgumentException.class, () -> json.escape("missing", Escaping.CSV));
+
+    // escaped values are taken literally, even if another value is substituted recursively
+    NamedTemplate mixed = NamedTemplate.compile("${a} ${b}").escape("a", Escaping.HTML);
+    assertEquals("${b} ${x}", mixed.render("${b}", "$${x}"));
+    assertEquals("$${b} ${x}", mixed.render("$${b}", "$${x}"));
+    assertEquals("a$ ${x}", mixed.render("a$", "$${x}"));
+    assertEquals("a$${x}", NamedTemplate.compile("${a}${b}").escape("a", Escaping.HTML).render("a$", "$${x}"));
+  }
+
+  /** Test method for {@link NamedTemplate#compile(String, Locale)} with typed placeholders. */
+  @Test
+  public void testFormat()
+    throws IOException
+  {
+    NamedTemplate template =
+        NamedTemplate.compile("${amount,number,#,##0.00} due ${due,date,dd.MM.yyyy} (${amount})", Locale.GERMANY);
+    assertEquals(Arrays.asList("amount", "due"), template.getNames());
+    assertEquals("1.234,50 due 01.02.2024 (1234.5)", template.render(1234.5, LocalDate.of(2024, 2, 1)));
+    assertEquals("1.234,50 due 01.02.2024 (1234.5)",
+        template.renderTo(new StringWriter(), name -> "due".equals(name) ? LocalDate.of(2024, 2, 1) : 1234.5)
+            .toString());
+    assertEquals("n/a due ${due,date,dd.MM.yyyy} (n/a)", template.render("n/a", null));
+
+    byte[] bytes = "1.234,50 due 01.02.2024 (1234.5)".getBytes(StandardCharsets.UTF_8);
+    assertEquals(bytes.length, template.encodedLength(1234.5, LocalDate.of(2024, 2, 1)));
+    assertArrayEquals(bytes, template.renderTo(ByteBuffer.allocate(bytes.length), 1234.5, LocalDate.of(2024, 2, 1))
+        .array());
+
+    // values that are substituted recursively are formatted as well
+    NamedTemplate fallback = NamedTemplate.compile("${text} ${count,number,integer}", Locale.US);
+    assertEquals("${x} 1,235", fallback.render("$${x}", 1234.6));
+    assertEquals("&lt;b&gt; 1,235", fallback.escape(Escaping.HTML).render("<b>", 1234.6));
+
+    // placeholders with an unknown type or an invalid pattern keep their name
+    assertEquals(Arrays.asList("a,b"), NamedTemplate.compile("${a,b}").getNames());
+    assertEquals(Arrays.asList("due,date,nonsense"), NamedTemplate.compile("${due,date,nonsense}").getNames());
+    assertEquals("1.5 and ${b}", NamedTemplate.compile("${a,number,#.#.#} and ${b}").render(1.5));
+  }
+
+  /** Test method for {@link NamedTemplate#renderTo(Appendable, Object...)}. */
+  @Test
+  public void testRenderToWriter()
+    throws IOException
+  {
+    NamedTemplate template = NamedTemplate.compile("<p>${body}</p>${footer:-}");
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      body.append("line ").append(i).append('\n');
+    }
+
+    ChunkWriter writer = template.renderTo(new ChunkWriter(), body);
+    assertEquals("<p>" + body + "</p>", writer.text.toString());
+    assertTrue(writer.largest <= 1024, "largest chunk " + writer.largest);
+
+    StringWriter output = template.renderTo(new StringWriter(), name -> "body".equals(name) ? "text" : null);
+    assertEquals("<p>text</p>", output.toString());
+    assertEquals("<p>${footer}</p>", template.renderTo(new StringWriter(), "$${footer}").toString());
+  }
+
+  /** Test method for {@link NamedTemplate#renderTo(ByteBuffer, Object...)}. */
+  @Test
+  public void testRenderToByteBuffer() {
+    for (String text : TEXTS) {
+      NamedTemplate template = NamedTemplate.compile(text);
+      for (Object[] values : VALUES) {
+        String message = text + " " + Arrays.toString(values);
+        byte[] expected = template.render(values).getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected.length, template.encodedLength(values), message);
+
+        ByteBuffer heap = template.renderTo(ByteBuffer.allocate(expected.length), values);
+        assertArrayEquals(expected, heap.array(), message);
+        assertEquals(0, heap.remaining(), message);
+
+        ByteBuffer direct = template.renderTo(ByteBuffer.allocateDirect(expected.length + 1), values);
+        byte[] bytes = new byte[expected.length];
+        ((ByteBuffer) direct.flip()).get(bytes);
+        assertArrayEquals(expected, bytes, message);
+      }
+    }
+
+    NamedTemplate template = NamedTemplate.compile("Hello ${name}!");
+    ByteBuffer buffer = ByteBuffer.allocate(8);
+    assertThrows(BufferOverflowException.class, () -> template.renderTo(buffer, "World"));
+    assertEquals(0, buffer.position());
+    assertEquals(12, template.encodedLength(name -> "World"));
+    assertEquals("Hello World!", new String(template.renderTo(ByteBuffer.allocate(12), name -> "World").array(),
+        StandardCharsets.UTF_8));
+  }
+
+  /** Test method for {@link NamedTemplate#renderTo(java.nio.channels.WritableByteChannel, Object...)}. */
+  @Test
+  public void testRenderToChannel()
+    throws IOException
+  {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      body.append("line \u00e4 ").append(i).append('\n');
+    }
+    String literal = body.toString();
+    NamedTemplate template = NamedTemplate.compile(literal + "<p>${body}</p>${footer:-\u20ac}");
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    template.renderTo(Channels.newChannel(output), body);
+    assertEquals(literal + "<p>" + body + "</p>\u20ac", output.toString("UTF-8"));
+
+    output.reset();
+    template.renderTo(Channels.newChannel(output), name -> "footer".equals(name) ? "\uD83D\uDE00" : null);
+    assertEquals(literal + "<p>${body}</p>\uD83D\uDE00", output.toString("UTF-8"));
+  }
+
+  /** Writer that remembers the largest chunk written at once. */
+  private static final class ChunkWriter
+    extends Writer
+  {
+    private final StringBuilder text = new StringBuilder();
+    private int largest;
+
+    @Override
+    public void write(final char[] buffer, final int offset, final int length) {
+      largest = Math.max(largest, length);
+      text.append(buffer, offset, length);
+    }
+
+    @Override
+    public void write(final String string) {
+      text.append(string);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package org.jcommons.lang.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>NamedValues</code> helper class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class NamedValuesTest
+{
+  /** Test method for {@link NamedValues#put(String, Object)}. */
+  @Test
+  public void testPut() {
+    NamedValues values = new NamedValues();
+    assertNull(values.get("name"));
+
+    values.put("name", "John");
+    values.put("city", "Berlin");
+    values.put("name", "Jill");
+    assertEquals(2, values.size());
+    assertEquals("Jill", values.get("name"));
+    assertEquals("Berlin", values.apply(new String("city")));
+
+    // grows beyond the initial capacity
+    for (int i = 0; i < 100; i++) {
+      values.put("key" + i, i);
+    }
+    assertEquals(102, values.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, values.get("key" + i));
+    }
+    assertEquals("Jill", values.get("name"));
+    assertNull(values.get("key100"));
+
+    values.clear();
+    assertEquals(0, values.size());
+    assertNull(values.get("name"));
+    values.put("name", null);
+    assertNull(values.get("name"));
+    assertEquals(1, values.size());
+  }
+}
@@ -0,0 +1,78 @@
+package org.jcommons.lang.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>StringBuilderPool</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class StringBuilderPoolTest
+{
+  /** Test method for {@link StringBuilderPool#acquire(int)}. */
+  @Test
+  public void testAcquire() {
+    StringBuilder builder = StringBuilderPool.acquire(100);
+    assertEquals(0, builder.length());
+    assertTrue(builder.capacity() >= 100);
+
+    builder.append("text");
+    assertEquals("text", StringBuilderPool.toString(builder));
+    assertTrue(drain().contains(builder));
+    assertEquals(0, builder.length());
+  }
+
+  /** Builders that have grown too large are not retained. */
+  @Test
+  public void testRelease() {
+    StringBuilder builder = new StringBuilder(StringBuilderPool.MAX_CAPACITY + 1);
+    StringBuilderPool.release(builder);
+    for (StringBuilder pooled : drain()) {
+      assertNotSame(builder, pooled);
+    }
+    StringBuilderPool.release(null);
+  }
+
+  /** No builder is handed out twice at the same time, also not to virtual threads. */
+  @Test
+  public void testThreads()
+    throws Exception
+  {
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+      for (int t = 0; t < 1000; t++) {
+        final String text = "thread " + t;
+        results.add(executor.submit(() -> {
+          for (int i = 0; i < 100; i++) {
+            StringBuilder builder = StringBuilderPool.acquire(16).append(text);
+            Thread.yield();
+            if (!text.equals(StringBuilderPool.toString(builder))) return false;
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertEquals(Boolean.TRUE, result.get());
+      }
+    }
+  }
+
+  /** @return the builders the current thread takes from the pool until it creates a new one */
+  private static List<StringBuilder> drain() {
+    List<StringBuilder> builders = new ArrayList<StringBuilder>();
+    for (int i = 0; i < StringBuilderPool.SIZE; i++) {
+      builders.add(StringBuilderPool.acquire(0));
+    }
+    return builders;
+  }
+}
@@ -4,6 +4,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.jcommons.lang.string.StringBuilderUtils.appendIfNotEmpty;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -53,6 +56,55 @@ public class StringBuilderUtilsTest
     assertThat(text.toString(), equalTo("Criteria:"));
   }
   
+  /** append primitive numbers unless they are zero */
+  @Test
+  public void shouldAppendPrimitive()
+  {
+    appendIfNotEmpty(text, " Invoice #", Long.MIN_VALUE, null);
+    appendIfNotEmpty(text, " [", 0L, "]");
+    appendIfNotEmpty(text, " [", -4, "]");
+    appendIfNotEmpty(text, " [", 0, "]");
+    appendIfNotEmpty(text, " ", 2.5d, null);
+    appendIfNotEmpty(text, " ", 0.3d, null);
+    appendIfNotEmpty(text, " ", Double.NaN, null);
+
+    assertThat(text.toString(), equalTo("Criteria: Invoice #-9223372036854775808 [-4] 2.5"));
+  }
+
+  /** floats are printed as floats, not widened to doubles */
+  @Test
+  public void shouldAppendFloat()
+  {
+    appendIfNotEmpty(text, " [", 1.1f, "]");
+    appendIfNotEmpty(text, " [", 0.3f, "]");
+    appendIfNotEmpty(text, " [", Float.NaN, "]");
+
+    assertThat(text.toString(), equalTo("Criteria: [1.1]"));
+  }
+
+  /** append fixed-scale decimals unless they are zero */
+  @Test
+  public void shouldAppendDecimal()
+  {
+    appendIfNotEmpty(text, " ", 12345L, 2, " EUR");
+    appendIfNotEmpty(text, " ", 0L, 2, " EUR");
+    appendIfNotEmpty(text, " ", -5, 2, null);
+    appendIfNotEmpty(text, " ", 7, 0, null);
+    appendIfNotEmpty(text, " ", 1000001L, 5, null);
+    appendIfNotEmpty(text, " ", Long.MIN_VALUE, 18, null);
+    appendIfNotEmpty(text, " ", Long.MAX_VALUE, 3, null);
+
+    assertThat(text.toString(),
+        equalTo("Criteria: 123.45 EUR -0.05 7 10.00001 -9.223372036854775808 9223372036854775.807"));
+    for (long value : new long[] { 1L, -1L, 99L, 100L, 123456789L, -987654321L }) {
+      for (int scale = 1; scale <= 18; scale++) {
+        String expected = BigDecimal.valueOf(value, scale).toPlainString();
+        assertThat(appendIfNotEmpty(new StringBuilder(), null, value, scale, null).toString(), equalTo(expected));
+      }
+    }
+    assertThrows(IllegalArgumentException.class, () -> appendIfNotEmpty(text, null, 1L, 19, null));
+  }
+
   /** do not append if string builder is null - attention, with enabled assertions this will fail */
   @Test
   @Disabled
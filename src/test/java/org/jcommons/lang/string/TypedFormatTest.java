@@ -0,0 +1,100 @@
+package org.jcommons.lang.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>TypedFormat</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class TypedFormatTest
+{
+  /** Test method for {@link TypedFormat#compile(String, Locale)}. */
+  @Test
+  public void testCompile() {
+    assertNull(TypedFormat.compile("choice,0#none", Locale.US));
+    assertNull(TypedFormat.compile("b", Locale.US));
+    assertEquals("number, #,##0.00", TypedFormat.compile("number, #,##0.00", Locale.US).getSpec());
+  }
+
+  /** Test method for {@link TypedFormat#format(Object)}. */
+  @Test
+  public void testFormat() {
+    assertEquals("1,234.5", TypedFormat.compile("number", Locale.US).format(1234.5).toString());
+    assertEquals("1,235", TypedFormat.compile("number,integer", Locale.US).format(1234.6).toString());
+    assertEquals("50%", TypedFormat.compile("number,percent", Locale.US).format(0.5).toString());
+    assertEquals("$1.50", TypedFormat.compile("number,currency", Locale.US).format(1.5).toString());
+    assertEquals("1.234,50", TypedFormat.compile("number,#,##0.00", Locale.GERMANY).format(1234.5).toString());
+
+    LocalDateTime time = LocalDateTime.of(2024, 2, 1, 13, 5);
+    TypedFormat date = TypedFormat.compile("date,dd.MM.yyyy", Locale.GERMANY);
+    assertEquals("01.02.2024", date.format(time).toString());
+    assertEquals("01.02.2024", date.format(Date.from(time.atZone(ZoneId.systemDefault()).toInstant())).toString());
+    Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+    calendar.setTimeInMillis(time.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli());
+    assertEquals("01.02.2024", date.format(calendar).toString());
+    long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    assertEquals("01.02.2024", date.format(new java.sql.Date(millis)).toString());
+    assertEquals("01.02.2024 13:05",
+        TypedFormat.compile("date,dd.MM.yyyy HH:mm", Locale.GERMANY).format(new Timestamp(millis)).toString());
+    assertEquals("13:05", TypedFormat.compile("time,HH:mm", Locale.GERMANY).format(time).toString());
+    assertEquals("01.02.24", TypedFormat.compile("date,short", Locale.GERMANY).format(time).toString());
+
+    // values of another type are taken as they are
+    String text = "n/a";
+    assertSame(text, date.format(text));
+    assertEquals("42", date.format(42));
+
+    // dates and times that lack a field of the format are taken as they are
+    LocalDate day = time.toLocalDate();
+    assertEquals("2024-02-01", TypedFormat.compile("time", Locale.GERMANY).format(day).toString());
+    assertEquals("2024-02-01T13:05", TypedFormat.compile("time,long", Locale.GERMANY).format(time).toString());
+    assertEquals("2024-02-01", TypedFormat.compile("date,dd.MM.yyyy HH:mm", Locale.GERMANY).format(day).toString());
+  }
+
+  /** Number formats must not be shared between threads. */
+  @Test
+  public void testThreads()
+    throws Exception
+  {
+    TypedFormat format = TypedFormat.compile("number,#,##0.00", Locale.US);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+      for (int t = 0; t < 4; t++) {
+        final int offset = t;
+        results.add(executor.submit(() -> {
+          for (int i = 0; i < 10000; i++) {
+            double value = i * 4 + offset;
+            if (!String.format(Locale.US, "%,.2f", value).equals(format.format(value).toString())) return false;
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertEquals(Boolean.TRUE, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
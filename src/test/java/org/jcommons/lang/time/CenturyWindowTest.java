@@ -0,0 +1,95 @@
+package org.jcommons.lang.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>CenturyWindow</code> helper class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class CenturyWindowTest
+{
+  /** Test method for {@link CenturyWindow#toCurrentCentury(int)}. */
+  @Test
+  public void testToCurrentCentury() {
+    CenturyWindow window = new CenturyWindow(Clock.fixed(Instant.parse("2026-06-01T00:00:00Z"), ZoneOffset.UTC));
+    assertEquals(2026, window.getCurrentYear());
+    assertEquals(1952, window.getStartYear());
+    assertEquals(2000, window.toCurrentCentury(0));
+    assertEquals(2026, window.toCurrentCentury(26));
+    assertEquals(2051, window.toCurrentCentury(51));
+    assertEquals(1952, window.toCurrentCentury(52));
+    assertEquals(1999, window.toCurrentCentury(99));
+    assertEquals(100, window.toCurrentCentury(100));
+    assertEquals(1995, window.toCurrentCentury(1995));
+    assertEquals(-5, window.toCurrentCentury(-5));
+
+    // as with SimpleDateFormat
+    window = new CenturyWindow(window.getClock(), 19);
+    assertEquals(1946, window.getStartYear());
+    assertEquals(2045, window.toCurrentCentury(45));
+    assertEquals(1946, window.toCurrentCentury(46));
+
+    // the window does not reach into the next century near its end
+    window = new CenturyWindow(Clock.fixed(Instant.parse("2080-06-01T00:00:00Z"), ZoneOffset.UTC));
+    assertEquals(2000, window.getStartYear());
+    assertEquals(2005, window.toCurrentCentury(5));
+    assertEquals(2099, window.toCurrentCentury(99));
+
+    assertThrows(IllegalArgumentException.class, () -> new CenturyWindow(Clock.systemUTC(), 100));
+  }
+
+  /** The window moves on once the year rolls over in the time zone of the clock. */
+  @Test
+  public void testRollOver() {
+    MovingClock clock = new MovingClock(Instant.parse("2026-12-31T22:30:00Z"), ZoneId.of("Europe/Berlin"));
+    CenturyWindow window = new CenturyWindow(clock);
+    assertEquals(2026, window.getCurrentYear());
+    assertEquals(1952, window.toCurrentCentury(52));
+
+    clock.instant = Instant.parse("2026-12-31T23:00:00Z");
+    assertEquals(2027, window.getCurrentYear());
+    assertEquals(2052, window.toCurrentCentury(52));
+    assertEquals(1953, window.toCurrentCentury(53));
+  }
+
+  /** Clock that can be set to any instant. */
+  private static final class MovingClock
+    extends Clock
+  {
+    private final ZoneId zone;
+    private Instant instant;
+
+    /**
+     * @param instant the initial instant
+     * @param zone the time zone of the clock
+     */
+    MovingClock(final Instant instant, final ZoneId zone) {
+      this.instant = instant;
+      this.zone = zone;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return zone;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId newZone) {
+      return new MovingClock(instant, newZone);
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package org.jcommons.lang.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>DateCache</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class DateCacheTest
+{
+  /** Test method for {@link DateCache#toDay(String)} and {@link DateCache#toTime(String)}. */
+  @Test
+  public void testCachedDates() {
+    DateCache cache = new DateCache(2);
+    DateTime date = new DateTime(2010, 03, 15, 0, 0, 0, 0);
+
+    Date first = cache.toDay("15-Mar-2010");
+    assertTrue(date.isEqual(first.getTime()));
+    // callers must not be able to corrupt the cache
+    first.setTime(0);
+    Date second = cache.toDay("15-Mar-2010");
+    assertNotSame(first, second);
+    assertTrue(date.isEqual(second.getTime()));
+
+    assertNull(cache.toDay("no date at all"));
+    assertNull(cache.toDay("no date at all"));
+    assertNull(cache.toDay(null));
+    assertTrue(date.withTime(14, 15, 45, 0).isEqual(cache.toTime("15.03.2010 14:15:45").getTime()));
+    assertNull(cache.toTime("15.03.2010"));
+
+    assertEquals(4, cache.size());
+    assertEquals(2, cache.getHits());
+    assertEquals(4, cache.getMisses());
+    assertTrue(cache.getFootprint() > 0);
+
+    cache.toDay("16.03.2010");
+    assertEquals(1, cache.getEvictions());
+    assertEquals(4, cache.size());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getFootprint());
+  }
+}
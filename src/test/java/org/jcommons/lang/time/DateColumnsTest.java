@@ -0,0 +1,109 @@
+package org.jcommons.lang.time;
+
+import static org.jcommons.lang.time.DateScanner.NO_MATCH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>DateColumns</code> helper class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class DateColumnsTest
+{
+  private static final long DAY = LocalDate.of(2010, 3, 15).toEpochDay();
+
+  /** Test method for {@link DateColumns#toDays(String[], long[], long[])}. */
+  @Test
+  public void testToDays() {
+    String[] column = { "15.03.2010", null, "15-Mar-2010", "no date", "16.03.2010", "2010-03-15", "1.1.5" };
+    long[] days = new long[column.length];
+    long[] invalid = DateColumns.bitmap(column.length);
+
+    assertEquals(3, DateColumns.toDays(column, days, invalid));
+    assertEquals(DAY, days[0]);
+    assertEquals(NO_MATCH, days[1]);
+    assertEquals(DAY, days[2]);
+    assertEquals(NO_MATCH, days[3]);
+    assertEquals(DAY + 1, days[4]);
+    assertEquals(DAY, days[5]);
+    assertEquals(NO_MATCH, days[6]);
+    assertNull(DateUtils.toDay(column[6]));
+
+    assertFalse(DateColumns.isInvalid(invalid, 0));
+    assertTrue(DateColumns.isInvalid(invalid, 1));
+    assertFalse(DateColumns.isInvalid(invalid, 2));
+    assertTrue(DateColumns.isInvalid(invalid, 3));
+  }
+
+  /** The format of a column is kept for ambiguous cells. */
+  @Test
+  public void testConsistentFormat() {
+    long[] days = new long[2];
+    DateColumns.toDays(new String[] { "15-03-2010", "10-03-15" }, days, DateColumns.bitmap(2));
+    assertEquals(DAY, days[0]);
+    assertEquals(LocalDate.of(2015, 3, 10).toEpochDay(), days[1]);
+
+    DateColumns.toDays(new String[] { "2010-03-15", "10-03-15" }, days, DateColumns.bitmap(2));
+    assertEquals(DAY, days[0]);
+    assertEquals(LocalDate.of(2010, 3, 15).toEpochDay(), days[1]);
+  }
+
+  /** Test method for {@link DateColumns#toTimes(List, long[], long[])}. */
+  @Test
+  public void testToTimes() {
+    List<String> column =
+        new LinkedList<String>(Arrays.asList("15.03.2010 14:15:45", "15.03.2010", "15-Mar-2010 14:15"));
+    long[] times = new long[column.size()];
+    long[] invalid = DateColumns.bitmap(column.size());
+
+    assertEquals(1, DateColumns.toTimes(column, times, invalid));
+    long time = LocalDateTime.of(2010, 3, 15, 14, 15, 45).toInstant(ZoneOffset.UTC).toEpochMilli();
+    assertEquals(time, times[0]);
+    assertTrue(DateColumns.isInvalid(invalid, 1));
+    assertEquals(time - 45_000, times[2]);
+  }
+
+  /** Large columns are converted in parallel chunks with the same result. */
+  @Test
+  public void testParallel() {
+    int size = DateColumns.CHUNK_SIZE * 5 + 17;
+    List<StringBuilder> column = new ArrayList<StringBuilder>(size);
+    for (int i = 0; i < size; i++) {
+      LocalDate day = LocalDate.ofEpochDay(DAY + i);
+      column.add((i % 7 == 0) ? null : new StringBuilder().append(day.getDayOfMonth()).append('.')
+          .append(day.getMonthValue()).append('.').append(day.getYear()));
+    }
+
+    long[] days = new long[size];
+    long[] invalid = DateColumns.bitmap(size);
+    Arrays.fill(invalid, -1L);
+
+    assertEquals((size + 6) / 7, DateColumns.toDays(column, days, invalid));
+    for (int i = 0; i < size; i++) {
+      assertEquals(i % 7 == 0, DateColumns.isInvalid(invalid, i));
+      assertEquals((i % 7 == 0) ? NO_MATCH : DAY + i, days[i]);
+    }
+  }
+
+  /** Target arrays must be large enough. */
+  @Test
+  public void testTooSmall() {
+    String[] column = { "15.03.2010", "16.03.2010" };
+    assertThrows(IllegalArgumentException.class, () -> DateColumns.toDays(column, new long[1], new long[1]));
+    assertThrows(IllegalArgumentException.class, () -> DateColumns.toDays(column, new long[2], new long[0]));
+  }
+}
@@ -0,0 +1,90 @@
+package org.jcommons.lang.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>DateParserChain</code> class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class DateParserChainTest
+{
+  private static final Locale DUTCH = Locale.of("nl", "NL");
+
+  /** Test method for {@link DateParserChain#ofDays(Locale...)}. */
+  @Test
+  public void testOfDays() {
+    DateTime date = new DateTime(2010, 03, 15, 0, 0, 0, 0);
+    DateParserChain chain = DateParserChain.ofDays(Locale.FRANCE, DUTCH, Locale.FRANCE);
+
+    assertEquals(Arrays.asList(Locale.FRANCE, DUTCH), chain.getLocales());
+    assertEquals(DateUtils.DAY_FORMATS, chain.getFormats());
+    assertTrue(date.isEqual(chain.parse("15. mars 2010").getTime()));
+    assertTrue(date.isEqual(chain.parse("15. maart 2010").getTime()));
+    assertTrue(date.isEqual(chain.parse("15.03.10").getTime()));
+    assertNull(chain.parse("15. March 2010"));
+    assertNull(chain.parse(null));
+    assertNull(chain.parse("01.08."));
+  }
+
+  /** Test method for {@link DateParserChain#ofTimes(Locale...)}. */
+  @Test
+  public void testOfTimes() {
+    DateTime date = new DateTime(2010, 03, 15, 14, 15, 45, 0);
+    DateParserChain chain = DateParserChain.ofTimes(DUTCH);
+
+    assertTrue(date.isEqual(chain.parse("15-mrt-2010 14:15:45").getTime()));
+    assertTrue(date.isEqual(chain.parse("15.03.2010 14:15:45").getTime()));
+    assertNull(chain.parse("15.03.2010"));
+  }
+
+  /** Test method for {@link DateParserChain#of(java.util.List, Locale...)}. */
+  @Test
+  public void testOf() {
+    DateTime date = new DateTime(2010, 03, 15, 0, 0, 0, 0);
+    DateParserChain chain = DateParserChain.of(Arrays.asList("yyyyMMdd", "d MMMM y"), Locale.FRANCE);
+
+    assertTrue(date.isEqual(chain.parse("20100315").getTime()));
+    assertTrue(date.isEqual(chain.parse("15 mars 2010").getTime()));
+    assertNull(chain.parse("15.03.2010"));
+  }
+
+  /** A chain learns from an affinity just like the date utilities do. */
+  @Test
+  public void testAffinity() {
+    FormatAffinity affinity = new FormatAffinity();
+    DateParserChain chain = DateParserChain.ofDays(Locale.UK);
+
+    chain.parse("15/03/2010", affinity);
+    chain.parse("16/03/2010", affinity);
+    assertEquals(1, affinity.getHits());
+    assertEquals(DateUtils.DAY_FORMATS.indexOf("d/M/y"), affinity.getSavedAttempts());
+
+    // the format learned by the chain is also found by the date utilities
+    DateUtils.toDay("17/03/2010", affinity);
+    assertEquals(2, affinity.getHits());
+  }
+
+  /** A hint learned by another chain counts the attempts saved in the chain that uses it, and moves to that chain. */
+  @Test
+  public void testAffinityOfAnotherChain() {
+    FormatAffinity affinity = new FormatAffinity();
+    DateParserChain other = DateParserChain.of(Arrays.asList("yyyyMMdd", "d/M/y"), Locale.UK);
+    DateParserChain chain = DateParserChain.ofDays(Locale.UK);
+
+    other.parse("15/03/2010", affinity);
+    chain.parse("16/03/2010", affinity);
+    assertEquals(1, affinity.getHits());
+    assertEquals(DateUtils.DAY_FORMATS.indexOf("d/M/y"), affinity.getSavedAttempts());
+    assertSame(chain, affinity.hint(false).chain);
+  }
+}
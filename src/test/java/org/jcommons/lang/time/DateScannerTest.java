@@ -0,0 +1,93 @@
+package org.jcommons.lang.time;
+
+import static org.jcommons.lang.time.DateScanner.NO_MATCH;
+import static org.jcommons.lang.time.DateScanner.scanDay;
+import static org.jcommons.lang.time.DateScanner.scanTime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>DateScanner</code> helper class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class DateScannerTest
+{
+  private static final long DAY = LocalDate.of(2010, 3, 15).toEpochDay();
+
+  /** Test method for {@link DateScanner#scanDay(CharSequence)}. */
+  @Test
+  public void testScanDay() {
+    assertEquals(DAY, scanDay("15.03.2010"));
+    assertEquals(DAY, scanDay("15.03.10"));
+    assertEquals(DAY, scanDay("2010-03-15"));
+    assertEquals(DAY, scanDay("15/3/2010"));
+    assertEquals(DAY, scanDay(" 15. 03. 2010"));
+    assertEquals(DAY, scanDay("15.03.2010 14:15"));
+    assertEquals(LocalDate.of(2015, 3, 10).toEpochDay(), scanDay("15-03-10"));
+    assertEquals(LocalDate.of(1995, 3, 15).toEpochDay(), scanDay("15.03.95"));
+    assertEquals(LocalDate.of(2012, 2, 29).toEpochDay(), scanDay("29.02.2012"));
+
+    assertEquals(NO_MATCH, scanDay(null));
+    assertEquals(NO_MATCH, scanDay(""));
+    assertEquals(NO_MATCH, scanDay("01.08."));
+    assertEquals(NO_MATCH, scanDay("15-Mar-2010"));
+    assertEquals(NO_MATCH, scanDay("15.03-2010"));
+    assertEquals(NO_MATCH, scanDay("32.01.2010"));
+    assertEquals(NO_MATCH, scanDay("15.13.2010"));
+    assertEquals(NO_MATCH, scanDay("29.02.2011"));
+    // no such y-M-d, left to DateUtils which rolls it over instead of trying d-M-y
+    assertEquals(NO_MATCH, scanDay("15-03-2010"));
+    assertEquals(DAY, DateScanner.scan("15-03-2010", 0, 10, false, DateScanner.DASHED));
+    assertEquals(NO_MATCH, scanDay("15.03.12345678901"));
+    assertEquals(NO_MATCH, scanDay("15.03.2010x"));
+    // too short for DateUtils as well
+    assertEquals(NO_MATCH, scanDay("1.1.5"));
+    assertEquals(NO_MATCH, scanDay("  1.1.5 "));
+    assertEquals(DateUtils.toLocalDate("1.1.05").toEpochDay(), scanDay("1.1.05"));
+  }
+
+  /** Test method for {@link DateScanner#scanDay(CharSequence, int, int)}. */
+  @Test
+  public void testScanDayRegion() {
+    String line = "4711;15.03.2010;Invoice";
+    assertEquals(DAY, scanDay(line, 5, 10));
+    assertEquals(NO_MATCH, scanDay(line, 5, 6));
+    assertEquals(NO_MATCH, scanDay(line, 0, 4));
+  }
+
+  /** Test method for {@link DateScanner#scanTime(CharSequence)}. */
+  @Test
+  public void testScanTime() {
+    long time = LocalDateTime.of(2010, 3, 15, 14, 15, 45).toInstant(ZoneOffset.UTC).toEpochMilli();
+    assertEquals(time, scanTime("15.03.2010 14:15:45"));
+    assertEquals(time, scanTime("15.03.10 14:15:45"));
+    assertEquals(time - 45_000, scanTime("2010-03-15 14:15"));
+    assertEquals(DAY * 86_400_000L, scanTime("15.03.2010 00:00"));
+
+    assertEquals(NO_MATCH, scanTime("15.03.2010"));
+    assertEquals(NO_MATCH, scanTime("15.03.2010 14"));
+    assertEquals(NO_MATCH, scanTime("15.03.2010 24:00"));
+    assertEquals(NO_MATCH, scanTime("15.03.2010 14:60"));
+    assertEquals(NO_MATCH, scanTime("15.03.2010 14:15:60"));
+    assertEquals(NO_MATCH, scanTime("15.03.2010 14:15x"));
+    assertEquals(NO_MATCH, scanTime("15.03.2010 14:15:"));
+  }
+
+  /** Valid numeric dates must yield the same day as the date utilities do. */
+  @Test
+  public void testSameAsDateUtils() {
+    for (String text : new String[] { "15.03.2010", "1.1.1999", "2010-03-15", "31/12/2044", "15.03.46", "15.03.45" }) {
+      Date date = DateUtils.toDay(text);
+      LocalDate day = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+      assertEquals(day.toEpochDay(), scanDay(text), text);
+    }
+  }
+}
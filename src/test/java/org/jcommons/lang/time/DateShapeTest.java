@@ -0,0 +1,82 @@
+package org.jcommons.lang.time;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.jcommons.lang.time.DateShape.ANY;
+import static org.jcommons.lang.time.DateShape.DIGITS;
+import static org.jcommons.lang.time.DateShape.LETTERS;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>DateShape</code> helper class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class DateShapeTest
+{
+  private static final String[] FORMATS = { "dd-MMM-yyyy", "dd-MMM-yy", "y-M-d", "y-MMM-d", "d-MMM-y", "d.M.y",
+      "MMM d, y", "MMM d,y", "d/M/y", "d-M-y", "d. MMMM y", "yyyyMMdd", "y-M-d HH:mm:ss", "d.M.y HH:mm",
+      "MMM d, y HH:mm:ss" };
+
+  private static final String[] DATES = { "15.03.2010", "15.03.10", "2010-03-15", "15.03.2010 14:15", "01.08.2010",
+      "15-Mar-2010", "15-mar-10", "2010-Mar-15", "Mar 15, 2010", "Mar 15,2010", "March 15, 2010", "15/03/2010",
+      "15-03-2010", "15. März 2010", "15. Mär. 2010", "15-Sept.-2010", " 15. 03. 2010", "15.03.2010x",
+      "2010-03-15 14:15:45", "15.03.2010 14:15:45", "Mar 15, 2010 14:15:45", "15-3月-2010", "20100315",
+      "no date at all" };
+
+  /** Test method for {@link DateShape#compile(String, boolean)}. */
+  @Test
+  public void testCompile() {
+    assertArrayEquals(new int[] { DIGITS, '.', DIGITS, '.', DIGITS }, DateShape.compile("d.M.y", true));
+    assertArrayEquals(new int[] { DIGITS, '-', DIGITS, '-', DIGITS, DIGITS, ':', DIGITS },
+        DateShape.compile("y-M-d HH:mm", true));
+    assertArrayEquals(new int[] { DIGITS, '-', LETTERS, ANY }, DateShape.compile("dd-MMM-yyyy", true));
+    assertArrayEquals(new int[] { DIGITS, '-', ANY }, DateShape.compile("dd-MMM-yyyy", false));
+    assertArrayEquals(new int[] { LETTERS, ANY }, DateShape.compile("MMM d, y", true));
+    assertArrayEquals(new int[] { DIGITS, ANY }, DateShape.compile("d 'of' MMMM y", true));
+    assertArrayEquals(new int[] { DIGITS, '-', DIGITS }, DateShape.compile("yyyyMMdd-HHmm", true));
+  }
+
+  /** Test method for {@link DateShape#matches(int[])}. */
+  @Test
+  public void testMatches() {
+    assertTrue(DateShape.of("15.03.2010").matches(DateShape.compile("d.M.y", true)));
+    assertTrue(DateShape.of("15.03.2010 14:15").matches(DateShape.compile("d.M.y", true)));
+    assertTrue(DateShape.of(" 15 . 03 . 2010").matches(DateShape.compile("d.M.y", true)));
+    assertFalse(DateShape.of("15.03.2010").matches(DateShape.compile("d.M.y HH:mm", true)));
+    assertFalse(DateShape.of("15.03.2010").matches(DateShape.compile("d/M/y", true)));
+    assertFalse(DateShape.of("15.03.2010").matches(DateShape.compile("dd-MMM-yyyy", true)));
+    assertFalse(DateShape.of("15.03.2010").matches(DateShape.compile("MMM d, y", true)));
+    assertTrue(DateShape.of("Mar 15, 2010").matches(DateShape.compile("MMM d, y", true)));
+    assertFalse(DateShape.of("01.08.").matches(DateShape.compile("d.M.y", true)));
+  }
+
+  /**
+   * A shape and the month names must never rule out a format that is actually able to parse the date string, i.e. a
+   * format that <code>SimpleDateFormat</code> matches up to the end of the text or of its first part.
+   */
+  @Test
+  public void testNeverRulesOutMatchingFormat() {
+    for (Locale locale : new Locale[] { Locale.UK, Locale.GERMANY, Locale.US, Locale.FRANCE, Locale.JAPAN }) {
+      DateParserChain parsers = DateParserChain.of(Arrays.asList(FORMATS), locale);
+      for (String date : DATES) {
+        DateShape shape = DateShape.of(date);
+        for (int i = 0; i < FORMATS.length; i++) {
+          ParsePosition position = new ParsePosition(0);
+          boolean parsed = new SimpleDateFormat(FORMATS[i], locale).parse(date, position) != null
+              && (position.getIndex() == date.length() || Character.isWhitespace(date.charAt(position.getIndex())));
+          Date result = parsers.parse(date, shape, parsers.months(date, shape), i);
+          assertTrue(!parsed || result != null, FORMATS[i] + " " + locale + " " + date);
+        }
+      }
+    }
+  }
+}
@@ -2,11 +2,24 @@ package org.jcommons.lang.time;
 
 import static org.apache.commons.lang3.time.DateFormatUtils.ISO_8601_EXTENDED_DATE_FORMAT;
 import static org.jcommons.lang.time.DateUtils.toCurrentCentury;
+import static org.jcommons.lang.time.DateUtils.toCurrentCenturyDate;
+import static org.jcommons.lang.time.DateUtils.toCurrentCenturyDateTime;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.joda.time.DateTime;
 import org.junit.jupiter.api.Test;
@@ -29,6 +42,30 @@ public class DateUtilsTest
 
     assertNull(DateUtils.toDay(null));
     assertNull(DateUtils.toDay("01.08."));
+    // the date must be followed by whitespace if anything
+    assertTrue(date.isEqual(DateUtils.toDay("15.03.2010 anything").getTime()));
+    assertNull(DateUtils.toDay("15.03.2010x"));
+    assertNull(DateUtils.toDay("2010-03-15T14:15"));
+  }
+
+  /** Test method for {@link DateUtils#toDay(String)} with textual months. */
+  @Test
+  public void testToDayWithMonthNames() {
+    DateTime date = new DateTime(2010, 03, 15, 0, 0, 0, 0);
+    assertTrue(date.isEqual(DateUtils.toDay("15-Mar-2010").getTime()));
+    assertTrue(date.isEqual(DateUtils.toDay("15-mar-10").getTime()));
+    assertTrue(date.isEqual(DateUtils.toDay("Mar 15, 2010").getTime()));
+    assertTrue(date.isEqual(DateUtils.toDay("Mar 15,2010").getTime()));
+    assertTrue(date.isEqual(DateUtils.toDay("15. März 2010").getTime()));
+    assertTrue(date.isEqual(DateUtils.toDay("15. March 2010").getTime()));
+    assertTrue(date.isEqual(DateUtils.toDay("15/03/2010").getTime()));
+
+    assertNull(DateUtils.toDay("15. Marzo 2010"));
+    assertNull(DateUtils.toDay("no date at all"));
+    // stand-alone month names are not taken, just as by SimpleDateFormat
+    assertNull(DateUtils.toDay("15-Mär-2010"));
+    assertNull(DateUtils.toDay("15-Mrz-2010"));
+    assertNull(DateUtils.toDay("15. Mär 2010"));
   }
 
   /** Test method for {@link DateUtils#toTime(String)}. */
@@ -47,6 +84,35 @@ public class DateUtilsTest
 
     assertNull(DateUtils.toTime(null));
     assertNull(DateUtils.toTime("01.08."));
+    assertNull(DateUtils.toTime("15.03.2010 14:15x"));
+    assertNull(DateUtils.toTime("15.03.2010 14:15:"));
+  }
+
+  /** Parsing must not be corrupted if many threads share the same parsers. */
+  @Test
+  public void testConcurrentParsing()
+    throws Exception
+  {
+    final DateTime day = new DateTime(2010, 03, 15, 0, 0, 0, 0);
+    final DateTime time = new DateTime(1995, 12, 24, 18, 30, 0, 0);
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+      for (int task = 0; task < 64; task++) {
+        results.add(executor.submit(() -> {
+          boolean correct = true;
+          for (int i = 0; i < 200; i++) {
+            correct &= day.isEqual(DateUtils.toDay("15.03.2010").getTime());
+            correct &= day.isEqual(DateUtils.toDay("15-Mar-2010").getTime());
+            correct &= time.isEqual(DateUtils.toTime("1995-12-24 18:30").getTime());
+          }
+          return correct;
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertTrue(result.get());
+      }
+    }
   }
 
   /** Test method for {@link DateUtils#toCurrentCentury(java.util.Date)}. */
@@ -70,6 +136,85 @@ public class DateUtilsTest
         ISO_8601_EXTENDED_DATE_FORMAT.format(toCurrentCentury(lenientDate.toDate())));
   }
 
+  /** Test method for {@link DateUtils#toCurrentCenturyDate(LocalDate, CenturyWindow)}. */
+  @Test
+  public void testToCurrentCenturyWithClock() {
+    CenturyWindow window = new CenturyWindow(Clock.fixed(Instant.parse("2026-06-01T00:00:00Z"), ZoneOffset.UTC));
+    assertEquals(LocalDate.of(2010, 3, 15), toCurrentCenturyDate(LocalDate.of(10, 3, 15), window));
+    assertEquals(LocalDate.of(1995, 3, 15), toCurrentCenturyDate(LocalDate.of(95, 3, 15), window));
+    assertEquals(LocalDate.of(2000, 2, 29), toCurrentCenturyDate(LocalDate.of(0, 2, 29), window));
+    assertEquals(LocalDate.of(1995, 3, 15), toCurrentCenturyDate(LocalDate.of(1995, 3, 15), window));
+    assertEquals(LocalDateTime.of(2010, 3, 15, 14, 15),
+        toCurrentCenturyDateTime(LocalDateTime.of(10, 3, 15, 14, 15), window));
+    assertNull(toCurrentCenturyDate((LocalDate) null, window));
+    assertNull(toCurrentCenturyDateTime((LocalDateTime) null));
+    assertNull(toCurrentCentury(null));
+
+    int year = LocalDate.now().getYear();
+    assertEquals(year, toCurrentCentury(year % 100));
+
+    // the very same rule as for dates without century
+    int currentYear = year % 100;
+    for (int twoDigits = 0; twoDigits < 100; twoDigits++) {
+      int expected = twoDigits + year - currentYear - ((twoDigits - currentYear > 25) ? 100 : 0);
+      assertEquals(expected, toCurrentCentury(twoDigits));
+      if (twoDigits == 0) continue; // there is no year 0 in the calendar
+      Date date = new DateTime(twoDigits, 3, 15, 0, 0, 0, 0).toDate();
+      assertEquals(expected, new DateTime(toCurrentCentury(date)).getYear());
+    }
+  }
+
+  /** Test method for {@link DateUtils#toLocalDate(String)} and {@link DateUtils#toLocalDateTime(String)}. */
+  @Test
+  public void testToLocalDate() {
+    LocalDate day = LocalDate.of(2010, 3, 15);
+    assertEquals(day, DateUtils.toLocalDate("15.03.2010"));
+    assertEquals(day, DateUtils.toLocalDate("15.03.10"));
+    assertEquals(day, DateUtils.toLocalDate("2010-03-15 14:15"));
+    assertEquals(day, DateUtils.toLocalDate("15-Mar-2010"));
+    assertEquals(day, DateUtils.toLocalDate("15. März 2010"));
+    assertEquals(day.toEpochDay(), DateUtils.toEpochDay("Mar 15, 2010"));
+    assertNull(DateUtils.toLocalDate(null));
+    assertNull(DateUtils.toLocalDate("01.08."));
+    assertEquals(DateScanner.NO_MATCH, DateUtils.toEpochDay("no date at all"));
+
+    LocalDateTime time = LocalDateTime.of(2010, 3, 15, 14, 15, 45);
+    assertEquals(time, DateUtils.toLocalDateTime("15.03.2010 14:15:45"));
+    assertEquals(time, DateUtils.toLocalDateTime("15-Mar-2010 14:15:45"));
+    assertEquals(time.withSecond(0), DateUtils.toLocalDateTime("2010-03-15 14:15"));
+    assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59, 59), DateUtils.toLocalDateTime("31.12.1969 23:59:59"));
+    assertNull(DateUtils.toLocalDateTime("15.03.2010"));
+    assertNull(DateUtils.toLocalDateTime((String) null));
+
+    // the same as with dates, even if they are rolled over
+    for (String text : new String[] { "31.02.2010", "15/03/2010", "15-03-10", "Mar 15,2010" }) {
+      Date date = DateUtils.toDay(text);
+      assertEquals(date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate(), DateUtils.toLocalDate(text), text);
+    }
+  }
+
+  /** {@link DateUtils#toLocalDate(String)} and {@link DateUtils#toDay(String)} must agree on every text. */
+  @Test
+  public void testToLocalDateAsToDay() {
+    String[] texts = { "15.03.2010", "15.03.10", "2010-03-15", "15.03.2010 14:15", "01.08.", "15-Mar-2010",
+        "15-mar-10", "Mar 15, 2010", "Mar 15,2010", "15. März 2010", "15. March 2010", "15/03/2010", "15. Marzo 2010",
+        "no date at all", "15.03.2010 14:15:45", "15.03.10 14:15:45", "2010-03-15 14:15", "15.03.2010 00:00",
+        "1995-12-24 18:30", "31.12.1969 23:59:59", "31.02.2010", "15-03-10", "15-03-2010", "31-12-99", "15.03.00",
+        "15.03.47", "15.03.52", "15.03.99", "29.02.2011 25:61", "15.03.2010x", "15.03.2010 14:15x",
+        "15.03.2010 14:15:", "15-Mär-2010", "15.03.2010 anything" };
+
+    for (String text : texts) {
+      Date day = DateUtils.toDay(text);
+      LocalDate expected = (day == null) ? null : day.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+      assertEquals(expected, DateUtils.toLocalDate(text), text);
+
+      Date time = DateUtils.toTime(text);
+      LocalDateTime timestamp =
+          (time == null) ? null : time.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+      assertEquals(timestamp, DateUtils.toLocalDateTime(text), text);
+    }
+  }
+
   /** Test method for {@link DateUtils#compare(java.util.Date, java.util.Date)}. */
   @Test
   public void testCompare() {
@@ -0,0 +1,62 @@
+package org.jcommons.lang.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>FormatAffinity</code> helper class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class FormatAffinityTest
+{
+  /** The remembered format is tried first and counted as hit. */
+  @Test
+  public void testHitsAndMisses() {
+    FormatAffinity affinity = new FormatAffinity();
+    DateTime date = new DateTime(2010, 03, 15, 0, 0, 0, 0);
+
+    assertTrue(date.isEqual(DateUtils.toDay("15/03/2010", affinity).getTime()));
+    assertEquals(0, affinity.getHits());
+    assertEquals(1, affinity.getMisses());
+
+    assertTrue(date.plusDays(1).isEqual(DateUtils.toDay("16/03/2010", affinity).getTime()));
+    assertTrue(date.plusDays(2).isEqual(DateUtils.toDay("17/03/2010", affinity).getTime()));
+    assertEquals(2, affinity.getHits());
+    assertEquals(1, affinity.getMisses());
+    assertTrue(affinity.getSavedAttempts() >= 2 * 8);
+
+    // another format is learned after a miss
+    assertTrue(date.isEqual(DateUtils.toDay("15.03.2010", affinity).getTime()));
+    assertTrue(date.isEqual(DateUtils.toDay("15.03.2010", affinity).getTime()));
+    assertEquals(3, affinity.getHits());
+    assertEquals(2, affinity.getMisses());
+
+    assertNull(DateUtils.toDay("no date at all", affinity));
+    assertEquals(3, affinity.getMisses());
+    assertEquals(0.5, affinity.getHitRate());
+  }
+
+  /** Days and timestamps are remembered separately. */
+  @Test
+  public void testDaysAndTimes() {
+    FormatAffinity affinity = new FormatAffinity();
+    DateTime date = new DateTime(2010, 03, 15, 14, 15, 0, 0);
+
+    assertTrue(date.isEqual(DateUtils.toTime("2010-03-15 14:15", affinity).getTime()));
+    assertTrue(date.withTimeAtStartOfDay().isEqual(DateUtils.toDay("15.03.2010", affinity).getTime()));
+    assertTrue(date.isEqual(DateUtils.toTime("2010-03-15 14:15", affinity).getTime()));
+    assertTrue(date.withTimeAtStartOfDay().isEqual(DateUtils.toDay("15.03.2010", affinity).getTime()));
+    assertEquals(2, affinity.getHits());
+    assertEquals(2, affinity.getMisses());
+
+    assertEquals(0, affinity.reset().getHits());
+    assertEquals(0.0, affinity.getHitRate());
+    assertSame(FormatAffinity.global(), FormatAffinity.global());
+  }
+}
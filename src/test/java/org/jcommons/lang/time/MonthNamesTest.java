@@ -0,0 +1,39 @@
+package org.jcommons.lang.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>MonthNames</code> helper class.
+ *
+ * @author Thorsten Goeckeler
+ */
+public class MonthNamesTest
+{
+  private static final long UK = 1L;
+  private static final long GERMANY = 2L;
+  private static final long FRANCE = 4L;
+
+  private final MonthNames months = new MonthNames(Arrays.asList(Locale.UK, Locale.GERMANY, Locale.FRANCE));
+
+  /** Test method for {@link MonthNames#match(CharSequence, int)}. */
+  @Test
+  public void testMatch() {
+    assertEquals(UK, months.match("March 2010", 0));
+    assertEquals(UK, months.match("MARCH", 0));
+    assertEquals(GERMANY, months.match("März 2010", 0));
+    assertEquals(GERMANY, months.match("15. märz 2010", 4));
+    assertEquals(UK, months.match("mar", 0));
+    assertEquals(UK | FRANCE, months.match("mars 2010", 0));
+    assertEquals(GERMANY | FRANCE, months.match("Mai", 0));
+    assertEquals(UK, months.match("May", 0));
+    assertEquals(GERMANY | FRANCE, months.match("décembre", 0) | months.match("Dezember", 0));
+
+    assertEquals(0L, months.match("xyz", 0));
+    assertEquals(0L, months.match("", 0));
+  }
+}